@@ -3,8 +3,16 @@ package IO;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Packs the one-byte-per-cell v1 maze layout into 8 cells per byte.
+ * A v2 maze (see Maze.writeTo) is already bit-packed, so once its header is seen every write is passed through as is,
+ * which lets a v2 maze be written in any number of chunks.
+ */
 public class MyCompressorOutputStream extends OutputStream{
     private OutputStream out;
+    private boolean passThrough = false; // true once a v2 maze header has been written
 
 
     public MyCompressorOutputStream(OutputStream out){
@@ -12,11 +20,29 @@ public class MyCompressorOutputStream extends OutputStream{
 
     }
 
-    public void write(int b){
+    public void write(int b) throws IOException {
+        if (passThrough)
+            out.write(b);
+    }
 
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (passThrough || isVersion2(b, off, len)) {
+            passThrough = true;
+            out.write(b, off, len);
+        }
+        else if (off == 0 && len == b.length)
+            write(b);
+        else
+            write(Arrays.copyOfRange(b, off, off + len));
     }
 
-    public void write(byte[] b){
+    public void write(byte[] b) throws IOException {
+        if (passThrough || isVersion2(b, 0, b.length)) {
+            passThrough = true;
+            out.write(b);
+            return;
+        }
         ArrayList<Byte> byteArrayList = new ArrayList<Byte>();
         int index = 0;
 
@@ -55,6 +81,21 @@ public class MyCompressorOutputStream extends OutputStream{
         return (byte)value;
     }
 
+    // A v1 maze starts with its row count, which is never zero, a v2 maze starts with two zero bytes
+    private boolean isVersion2(byte[] b, int off, int len) {
+        return len >= 2 && b[off] == 0 && b[off + 1] == 0;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
 
     public void compress(){
 
@@ -2,26 +2,45 @@ package IO;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.util.ArrayList;
 
+/**
+ * Reverses MyCompressorOutputStream. The layout is detected from the first two bytes:
+ * a v1 maze is unpacked from 8 cells per byte, a v2 maze (already bit-packed) is passed through as is.
+ */
 public class MyDecompressorInputStream extends InputStream {
-    private InputStream in;
+    private PushbackInputStream in;
+    private int version = 0; // 0 until the header has been peeked at
 
     public MyDecompressorInputStream(InputStream in){
-        this.in = in;
+        this.in = new PushbackInputStream(in, 2);
     }
 
-    public int read(){
+    public int read() throws IOException {
+        if (isVersion2())
+            return in.read();
         return 0;
     }
 
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (isVersion2())
+            return in.read(b, off, len);
+        return super.read(b, off, len);
+    }
+
     private String decimalToBinary(byte b){
         int unsignedByte = Byte.toUnsignedInt(b);
         return Integer.toString(unsignedByte, 2);// Handles unsigned bytes and pads the binary number to the correct length.
     }
 
     @Override
-    public int read(byte[] b){
+    public int read(byte[] b) throws IOException {
+        if (isVersion2()) {
+            int read = in.readNBytes(b, 0, b.length);
+            return read == 0 ? -1 : read;
+        }
         ArrayList<Byte> input = new ArrayList<>();
 
         try {
@@ -69,4 +88,20 @@ public class MyDecompressorInputStream extends InputStream {
             return -1;
         return index;
     }
+
+    // Peeks at the first two bytes: a v1 maze starts with its non-zero row count, a v2 maze with two zero bytes
+    private boolean isVersion2() throws IOException {
+        if (version == 0) {
+            byte[] marker = new byte[2];
+            int read = in.readNBytes(marker, 0, 2);
+            in.unread(marker, 0, read);
+            version = (read == 2 && marker[0] == 0 && marker[1] == 0) ? 2 : 1;
+        }
+        return version == 2;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
 }
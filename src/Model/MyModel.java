@@ -8,7 +8,10 @@ import Server.ServerStrategyGenerateMaze;
 import Server.ServerStrategySolveSearchProblem;
 import algorithms.mazeGenerators.Maze;
 import algorithms.mazeGenerators.Position;
+import Server.HintRequest;
 import algorithms.search.AState;
+import algorithms.search.DStarLitePlanner;
+import algorithms.search.GoalDistanceField;
 import algorithms.search.MazeState;
 import algorithms.search.Solution;
 import Server.Configurations;
@@ -40,6 +43,8 @@ public class MyModel extends Observable implements IModel {
     private boolean solvedMaze = false;
 
     private boolean hint = false;
+    private GoalDistanceField distanceField; // fetched on the first hint of a maze, answers every later hint
+    private DStarLitePlanner planner; // hints and re-solves of the loaded maze, repaired as the character moves
 
     private int characterPositionRow;
     private int characterPositionColumn;
@@ -105,7 +110,7 @@ public class MyModel extends Observable implements IModel {
                         toServer.flush();
                         byte[] compressedMaze = (byte[]) (new ObjectInputStream(inFromServer)).readObject();
                         InputStream is = new MyDecompressorInputStream(new ByteArrayInputStream(compressedMaze));
-                        byte[] decompressedMaze = new byte[Width * Height + 12];
+                        byte[] decompressedMaze = new byte[(int) Maze.byteArrayLength(Height, Width)];
                         is.read(decompressedMaze);
                         maze = new Maze(decompressedMaze);
 
@@ -126,6 +131,8 @@ public class MyModel extends Observable implements IModel {
                         characterPositionRow = startPosition.getRowIndex();
 
                         gameOver = false;
+                        distanceField = null;
+                        planner = null;
 
                     } catch (Exception e) {
                         //Log.error("The maze creation failed");
@@ -141,7 +148,13 @@ public class MyModel extends Observable implements IModel {
 
     @Override
     public void SolveMaze(){
-        SolveMyMaze();
+        if (movedFromStart() && usesLocalPlanner()) {
+            // The character has moved: the maze's planner repairs its last search instead of the server solving it again
+            setHintPath(planner().solve(new Position(characterPositionRow, characterPositionColumn)));
+            solvedMaze = !hint;
+        } else {
+            SolveMyMaze();
+        }
         setChanged();
         notifyObservers();
     }
@@ -160,6 +173,8 @@ public class MyModel extends Observable implements IModel {
                         toServer.writeObject(maze);// Send current maze state
                         toServer.flush();
                         Solution mazeSolution = (Solution) fromServer.readObject();
+                        if (mazeSolution.isTimedOut())
+                            System.out.println("The maze solution timed out");
 
                         ArrayList<AState> mazeSolutionSteps = mazeSolution.getSolutionPath();
 
@@ -353,6 +368,8 @@ public class MyModel extends Observable implements IModel {
 
         gameOver = false;
         solvedMaze = false;
+        distanceField = null;
+        planner = null;
 
         characterPositionRow = startPosition.getRowIndex();
         characterPositionColumn = startPosition.getColumnIndex();
@@ -373,7 +390,71 @@ public class MyModel extends Observable implements IModel {
     public void Hint(){
         //Log.info("The player ask for Hint");
         hint = true;
-        SolveMaze();
+        if (distanceField != null) {
+            setHintPath(distanceField.pathToGoal(characterPositionRow, characterPositionColumn)); // no need to ask the server again
+        } else if (usesLocalPlanner()) {
+            // The planner keeps its search between hints, so a hint after a few moves costs little more than the path.
+            // Mazes under the threshold ask the server, for a distance field or for a path on its hierarchical graph
+            setHintPath(planner().solve(new Position(characterPositionRow, characterPositionColumn)));
+        } else {
+            RequestHint();
+        }
+        setChanged();
+        notifyObservers();
+    }
+    // One planner per loaded maze, built on its first hint or re-solve and dropped when another maze is loaded
+    private DStarLitePlanner planner() {
+        if (planner == null)
+            planner = new DStarLitePlanner(maze);
+        return planner;
+    }
+    private boolean usesLocalPlanner() {
+        return (long) maze.getRows() * maze.getColumns() >= Configurations.getInstance().getLocalHintThreshold();
+    }
+    private boolean movedFromStart() {
+        return characterPositionRow != maze.getStartPosition().getRowIndex()
+                || characterPositionColumn != maze.getStartPosition().getColumnIndex();
+    }
+    private void RequestHint(){
+        try {
+            Client client = new Client(InetAddress.getLocalHost(), 5401, new IClientStrategy() {
+                @Override
+                public void clientStrategy(InputStream inFromServer, OutputStream outToServer) {
+                    try {
+                        ObjectOutputStream toServer = new ObjectOutputStream(outToServer);
+                        ObjectInputStream fromServer = new ObjectInputStream(inFromServer);
+                        toServer.flush();
+
+                        toServer.writeObject(new HintRequest(maze, new Position(characterPositionRow, characterPositionColumn)));
+                        toServer.flush();
+                        // The distance field for most mazes, only the path from the character for very large ones
+                        Object hintReply = fromServer.readObject();
+                        if (hintReply instanceof GoalDistanceField) {
+                            distanceField = (GoalDistanceField) hintReply;
+                            setHintPath(distanceField.pathToGoal(characterPositionRow, characterPositionColumn));
+                        } else {
+                            if (((Solution) hintReply).isTimedOut())
+                                System.out.println("The maze hint timed out");
+                            setHintPath((Solution) hintReply);
+                        }
+                    } catch (Exception e) {
+                        System.out.println("Failed maze hint");
+                        //Log.error("The maze hint failed");
+                    }
+                }
+            });
+            client.communicateWithServer();
+        } catch (UnknownHostException e) {
+            e.printStackTrace();
+        }
+    }
+    private void setHintPath(Solution hintPath) {
+        rowsSolution = new ArrayList<>();
+        columnsSolution = new ArrayList<>();
+        for (AState step : hintPath.getSolutionPath()) {
+            rowsSolution.add(((MazeState) step).getStateRow());
+            columnsSolution.add(((MazeState) step).getStateColumn());
+        }
     }
 
     @Override
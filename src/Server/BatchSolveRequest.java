@@ -0,0 +1,41 @@
+package Server;
+
+import algorithms.mazeGenerators.Maze;
+import algorithms.mazeGenerators.Position;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * Asks the solve server for many routes through one maze at once.
+ * The maze is sent and prepared once, and the server answers with a Solution[] in the order of the routes.
+ * Routes still unsolved when the solve time budget runs out are answered with timed out solutions, and a batch of
+ * more routes than the server's maxBatchRoutes, or one it can't solve (no maze, a maze too large to index, or routes
+ * whose starts and goals don't pair up), is answered with an empty array.
+ */
+public class BatchSolveRequest implements Serializable {
+    private final Maze maze;
+    private final ArrayList<Position> starts = new ArrayList<>();
+    private final ArrayList<Position> goals = new ArrayList<>();
+
+    public BatchSolveRequest(Maze maze) {
+        this.maze = maze;
+    }
+
+    public void addRoute(Position start, Position goal) {
+        starts.add(start);
+        goals.add(goal);
+    }
+
+    public Maze getMaze() {
+        return maze;
+    }
+
+    public ArrayList<Position> getStarts() {
+        return starts;
+    }
+
+    public ArrayList<Position> getGoals() {
+        return goals;
+    }
+}
@@ -42,4 +42,51 @@ public class Configurations {  // Singleton class
         return prop.getProperty("mazeSearchingAlgorithm");
     }
 
+    // Mazes with at least this many cells are solved with the parallel Breadth First Search
+    public int getParallelSearchThreshold() {
+        String parallelSearchThreshold = prop.getProperty("parallelSearchThreshold");
+        return parallelSearchThreshold == null ? 4000000 : Integer.parseInt(parallelSearchThreshold.trim());
+    }
+
+    // Which algorithms PortfolioSearch races: "cheapest" races A*, Dial and jump point search so the cached solution is
+    // the cheapest path, "fastest" races Breadth First Search, Depth First Search, A* and bitboard Breadth First Search
+    // for the first path of any length. Either one costs the CPU and memory of a search per algorithm
+    public String getPortfolioMode() {
+        String portfolioMode = prop.getProperty("portfolioMode");
+        return portfolioMode == null ? "cheapest" : portfolioMode.trim();
+    }
+
+    // Mazes with at least this many cells are solved for the cheapest path by A* on the bucket queue, whichever
+    // cost optimal algorithm the configuration names
+    public long getCostSearchThreshold() {
+        String costSearchThreshold = prop.getProperty("costSearchThreshold");
+        return costSearchThreshold == null ? 4000000 : Long.parseLong(costSearchThreshold.trim());
+    }
+
+    // Hints on mazes with at least this many cells are answered by hierarchical path finding instead of a distance field
+    public int getHierarchicalHintThreshold() {
+        String hierarchicalHintThreshold = prop.getProperty("hierarchicalHintThreshold");
+        return hierarchicalHintThreshold == null ? 1000000 : Integer.parseInt(hierarchicalHintThreshold.trim());
+    }
+
+    // Hints, and solves after the character has moved, on mazes with at least this many cells are planned by the
+    // client itself (D* Lite) without sending the maze to the server. 0 plans every maze locally, as the planner
+    // repairs its search between hints where the server would search the whole maze again
+    public long getLocalHintThreshold() {
+        String localHintThreshold = prop.getProperty("localHintThreshold");
+        return localHintThreshold == null ? 0 : Long.parseLong(localHintThreshold.trim());
+    }
+
+    // The most routes one batch request may ask for, larger batches are refused
+    public int getMaxBatchRoutes() {
+        String maxBatchRoutes = prop.getProperty("maxBatchRoutes");
+        return maxBatchRoutes == null ? 10000 : Integer.parseInt(maxBatchRoutes.trim());
+    }
+
+    // How long one solve may search before the client is told it timed out, in milliseconds
+    public long getSolveTimeBudget() {
+        String solveTimeBudget = prop.getProperty("solveTimeBudget");
+        return solveTimeBudget == null ? 30000 : Long.parseLong(solveTimeBudget.trim());
+    }
+
 }
@@ -0,0 +1,45 @@
+package Server;
+
+import java.io.Serializable;
+
+/**
+ * Asks the generate server for the maze of a seed.
+ * A generator gives the same maze for the same rows, columns and seed, so the server keeps the mazes it sent by
+ * these and a client can ask for a maze again by its seed instead of storing it.
+ * A streamed request is answered with the compressed v2 maze as block data of the object stream instead of a
+ * byte[], written as it is generated and not kept, to be read with Maze.readFrom(new MyDecompressorInputStream(in)).
+ * With the Eller generator the maze is never built on the server, so it may be larger than the server's heap.
+ */
+public class GenerateMazeRequest implements Serializable {
+    private final int rows;
+    private final int columns;
+    private final long seed;
+    private final boolean streamed;
+
+    public GenerateMazeRequest(int rows, int columns, long seed) {
+        this(rows, columns, seed, false);
+    }
+
+    public GenerateMazeRequest(int rows, int columns, long seed, boolean streamed) {
+        this.rows = rows;
+        this.columns = columns;
+        this.seed = seed;
+        this.streamed = streamed;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isStreamed() {
+        return streamed;
+    }
+}
@@ -0,0 +1,30 @@
+package Server;
+
+import algorithms.mazeGenerators.Maze;
+import algorithms.mazeGenerators.Position;
+
+import java.io.Serializable;
+
+/**
+ * Asks the solve server for hints on a maze instead of a solution.
+ * For most mazes the server answers with the goal distance field, which the client keeps and answers every hint
+ * of the game from. Mazes too large to send a field for are answered with the path from the player's position.
+ * A field or graph that can't be built within the solve time budget is answered with an empty, timed out Solution.
+ */
+public class HintRequest implements Serializable {
+    private final Maze maze;
+    private final Position position;
+
+    public HintRequest(Maze maze, Position position) {
+        this.maze = maze;
+        this.position = position;
+    }
+
+    public Maze getMaze() {
+        return maze;
+    }
+
+    public Position getPosition() {
+        return position;
+    }
+}
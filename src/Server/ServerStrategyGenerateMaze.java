@@ -6,47 +6,78 @@ import algorithms.mazeGenerators.*;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class ServerStrategyGenerateMaze implements IServerStrategy {
+    // The compressed mazes of the last seeded requests, by algorithm, rows, columns and seed. A seed regenerates
+    // its maze, so only the last few are kept and the least recently sent one is forgotten first
+    private static final int CACHED_MAZES = 16;
+    private final Map<String, byte[]> seededMazes = Collections.synchronizedMap(new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+            return size() > CACHED_MAZES;
+        }
+    });
+
     @Override
     public void applyStrategy(InputStream inFromClient, OutputStream outToClient) {
 
         try {
             ObjectInputStream fromClient = new ObjectInputStream(inFromClient);
             ObjectOutputStream toClient = new ObjectOutputStream(outToClient);
-            int[] mazeSizes = (int[]) fromClient.readObject();
+            Object received = fromClient.readObject();
 
             // Check which algorithm to use to generate the maze.
             Configurations conf = Configurations.getInstance();
             String generateAlgo =  conf.getMazeGeneratingAlgorithm();
-            IMazeGenerator mazeGenerator = null;
 
-            // Choose the appropriate maze generator based on the algorithm specified
-            if(generateAlgo.equalsIgnoreCase("empty")){
-                mazeGenerator = new EmptyMazeGenerator();
-            }
-            else if(generateAlgo.equalsIgnoreCase("simple")){
-                mazeGenerator = new SimpleMazeGenerator();
+            // A streamed maze is written to the client as it is generated
+            if (received instanceof GenerateMazeRequest && ((GenerateMazeRequest) received).isStreamed()) {
+                GenerateMazeRequest request = (GenerateMazeRequest) received;
+                IMazeGenerator mazeGenerator = createMazeGenerator(generateAlgo);
+                MyCompressorOutputStream compressor = new MyCompressorOutputStream(toClient);
+                if (mazeGenerator instanceof EllerMazeGenerator) {
+                    ((EllerMazeGenerator) mazeGenerator).writeTo(request.getRows(), request.getColumns(), request.getSeed(), compressor);
+                } else {
+                    mazeGenerator.generate(request.getRows(), request.getColumns(), request.getSeed()).writeTo(compressor);
+                }
+                toClient.flush();
+                fromClient.close();
+                toClient.close();
+                return;
             }
-            else if(generateAlgo.equalsIgnoreCase("DepthFirstSearch")){
-                mazeGenerator = new MyMazeGenerator();
+
+            // A seeded maze is generated once and sent again from memory
+            if (received instanceof GenerateMazeRequest) {
+                GenerateMazeRequest request = (GenerateMazeRequest) received;
+                String key = generateAlgo + ":" + request.getRows() + ":" + request.getColumns() + ":" + request.getSeed();
+                byte[] compressedMaze = seededMazes.get(key);
+                if (compressedMaze == null) {
+                    // Generated outside the cache's lock so other requests are not held up meanwhile,
+                    // two requests for the same seed build the same maze and the first one stored is kept
+                    compressedMaze = compress(createMazeGenerator(generateAlgo)
+                            .generate(request.getRows(), request.getColumns(), request.getSeed()));
+                    byte[] stored = seededMazes.putIfAbsent(key, compressedMaze);
+                    if (stored != null) {
+                        compressedMaze = stored;
+                    }
+                }
+                toClient.writeObject(compressedMaze);
+                toClient.flush();
+                fromClient.close();
+                toClient.close();
+                return;
             }
+            int[] mazeSizes = (int[]) received;
+            IMazeGenerator mazeGenerator = createMazeGenerator(generateAlgo);
 
             // Generate a maze with the chosen algorithm and specified dimensions
             Maze maze = mazeGenerator.generate(mazeSizes[0], mazeSizes[1]);
 
-            // Convert the maze to a byte array for compression
-            byte[] uncompressedMaze = maze.toByteArray();
-
-            // Compress the maze using the selected compressor
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            MyCompressorOutputStream compressor = new MyCompressorOutputStream(out);
-            //SimpleCompressorOutputStream compressor = new SimpleCompressorOutputStream(out);
-            compressor.write(uncompressedMaze);
-            compressor.flush();
-
             // Send the compressed maze data back to the client
-            toClient.writeObject(out.toByteArray());
+            toClient.writeObject(compress(maze));
             // Ensure all buffered data is immediately sent to the client
             toClient.flush();
 
@@ -63,4 +94,46 @@ public class ServerStrategyGenerateMaze implements IServerStrategy {
         }
     }
 
+    private IMazeGenerator createMazeGenerator(String generateAlgo) {
+        IMazeGenerator mazeGenerator = null;
+
+        // Choose the appropriate maze generator based on the algorithm specified
+        if(generateAlgo.equalsIgnoreCase("empty")){
+            mazeGenerator = new EmptyMazeGenerator();
+        }
+        else if(generateAlgo.equalsIgnoreCase("simple")){
+            mazeGenerator = new SimpleMazeGenerator();
+        }
+        else if(generateAlgo.equalsIgnoreCase("DepthFirstSearch")){
+            mazeGenerator = new MyMazeGenerator();
+        }
+        else if(generateAlgo.equalsIgnoreCase("ParallelDepthFirstSearch")){
+            mazeGenerator = new ParallelMazeGenerator();
+        }
+        else if(generateAlgo.equalsIgnoreCase("Eller")){
+            mazeGenerator = new EllerMazeGenerator();
+        }
+        else if(generateAlgo.equalsIgnoreCase("Kruskal")){
+            mazeGenerator = new KruskalMazeGenerator();
+        }
+        return mazeGenerator;
+    }
+
+    private byte[] compress(Maze maze) {
+        try {
+            // Convert the maze to a byte array for compression
+            byte[] uncompressedMaze = maze.toByteArray();
+
+            // Compress the maze using the selected compressor
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            MyCompressorOutputStream compressor = new MyCompressorOutputStream(out);
+            //SimpleCompressorOutputStream compressor = new SimpleCompressorOutputStream(out);
+            compressor.write(uncompressedMaze);
+            compressor.flush();
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
 }
\ No newline at end of file
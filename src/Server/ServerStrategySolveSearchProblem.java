@@ -10,13 +10,26 @@ import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 
 public class ServerStrategySolveSearchProblem implements IServerStrategy {
 //    private HashMap<String, Solution> mazeSolutions = new HashMap<>();
     private final ConcurrentHashMap<String, Solution> mazeSolutions = new ConcurrentHashMap<>();
+    // Distance fields, tree oracles and hierarchical graphs are as large as their maze, so only the last few are kept
+    private static final int CACHED_MAZES = 8;
+    private final Map<String, GoalDistanceField> distanceFields = lruCache();
+    private final Map<String, Optional<TreePathOracle>> treeOracles = lruCache(); // empty for mazes with loops
+    private final Map<String, HierarchicalPathFinder> pathFinders = lruCache();
+    private final ConcurrentHashMap<String, Integer> portfolioWins = new ConcurrentHashMap<>();
+    private final AtomicReference<SearchStatistics> statistics = new AtomicReference<>(SearchStatistics.none());
     private final ReentrantReadWriteLock fileLock = new ReentrantReadWriteLock();
     private final String tempDirectoryPath = System.getProperty("java.io.tmpdir");
 
@@ -26,7 +39,16 @@ public void applyStrategy(InputStream inFromClient, OutputStream outToClient) {
     try (ObjectInputStream fromClient = new ObjectInputStream(inFromClient);
          ObjectOutputStream toClient = new ObjectOutputStream(outToClient)) {
 
-        Maze maze = (Maze) fromClient.readObject();
+        Object received = fromClient.readObject();
+        if (received instanceof HintRequest) {
+            sendHintToClient((HintRequest) received, toClient);
+            return;
+        }
+        if (received instanceof BatchSolveRequest) {
+            sendBatchSolutionsToClient((BatchSolveRequest) received, toClient);
+            return;
+        }
+        Maze maze = (Maze) received;
         String request = maze.toString();
 
         // Using ConcurrentHashMap's atomic operations for thread safety
@@ -41,6 +63,9 @@ public void applyStrategy(InputStream inFromClient, OutputStream outToClient) {
         try {
             if (solutionFileExists(tempDirectoryPath, request)) {
                 solution = retrieveSolutionFromFile(tempDirectoryPath, request);
+            }
+            // A file that can't be read (written by an older Solution class) is solved again and overwritten
+            if (solution != null) {
                 mazeSolutions.putIfAbsent(request, solution);
                 sendSolutionToClient(solution, toClient);
                 return;
@@ -51,19 +76,41 @@ public void applyStrategy(InputStream inFromClient, OutputStream outToClient) {
 
         // If we need to generate a new solution
         Configurations config = Configurations.getInstance();
-        ISearchingAlgorithm searchingAlgorithm = null;
-        String searchAlgoName = config.getMazeSearchingAlgorithm();
-
-        if (searchAlgoName.equalsIgnoreCase("BreadthFirstSearch")) {
-            searchingAlgorithm = new BreadthFirstSearch();
-        } else if (searchAlgoName.equalsIgnoreCase("BestFirstSearch")) {
-            searchingAlgorithm = new BestFirstSearch();
-        } else if (searchAlgoName.equalsIgnoreCase("DepthFirstSearch")) {
-            searchingAlgorithm = new DepthFirstSearch();
+        ISearchingAlgorithm searchingAlgorithm = createSearchingAlgorithm(config.getMazeSearchingAlgorithm());
+        // Large mazes are worth splitting across threads, the parallel search finds paths of the same length
+        if (searchingAlgorithm instanceof BreadthFirstSearch
+                && (long) maze.getRows() * maze.getColumns() >= config.getParallelSearchThreshold()) {
+            searchingAlgorithm = new ParallelBreadthFirstSearch();
+        }
+        // Jump point search pays for its scans on the long corridors of a large maze, and a cheapest path portfolio
+        // for racing three searches over it, A* alone finds paths of the same cost
+        boolean cheapestPortfolio = searchingAlgorithm instanceof PortfolioSearch
+                && !config.getPortfolioMode().equalsIgnoreCase("fastest");
+        if ((searchingAlgorithm instanceof JumpPointSearch || cheapestPortfolio)
+                && (long) maze.getRows() * maze.getColumns() >= config.getCostSearchThreshold()) {
+            searchingAlgorithm = new AStarSearch();
         }
 
-        SearchableMaze searchableMaze = new SearchableMaze(maze);
-        solution = searchingAlgorithm.solve(searchableMaze);
+        // Building the tree oracle and searching share the time budget, so a huge maze can't hold a worker forever
+        SearchControl control = new SearchControl(config.getSolveTimeBudget(), TimeUnit.MILLISECONDS);
+        try {
+            // A perfect maze needs no search for a shortest path, its tree is built once and answers every solve
+            TreePathOracle oracle = findsShortestPath(searchingAlgorithm) ? treeOracleFor(maze, control) : null;
+            if (oracle != null) {
+                solution = oracle.solve(maze.getStartPosition(), maze.getGoalPosition(), accumulatesCost(searchingAlgorithm));
+            } else {
+                SearchableMaze searchableMaze = new SearchableMaze(maze);
+                searchingAlgorithm.setSearchControl(control);
+                solution = searchingAlgorithm.solve(searchableMaze);
+                statistics.accumulateAndGet(searchingAlgorithm.getStatistics(), SearchStatistics::plus);
+                if (searchingAlgorithm instanceof PortfolioSearch && ((PortfolioSearch) searchingAlgorithm).getWinner() != null)
+                    portfolioWins.merge(((PortfolioSearch) searchingAlgorithm).getWinner(), 1, Integer::sum);
+            }
+        } catch (SearchCancelledException e) {
+            // Not cached, a later request may get more time
+            sendSolutionToClient(timedOutSolution(), toClient);
+            return;
+        }
 
         // Save under write lock to prevent concurrent file access
         fileLock.writeLock().lock();
@@ -84,6 +131,155 @@ public void applyStrategy(InputStream inFromClient, OutputStream outToClient) {
 
 
 
+    // The sum of every search this strategy ran, answers from the caches and the tree oracle cost no search
+    public SearchStatistics getStatistics() {
+        return statistics.get();
+    }
+
+    // How many solves each algorithm of the portfolio search won, to tune which algorithm the configuration names
+    public Map<String, Integer> getPortfolioWins() {
+        return new HashMap<>(portfolioWins);
+    }
+
+    // Chooses the searching algorithm named in the configuration file
+    private ISearchingAlgorithm createSearchingAlgorithm(String searchAlgoName) {
+        if (searchAlgoName.equalsIgnoreCase("BreadthFirstSearch")) {
+            return new BreadthFirstSearch();
+        } else if (searchAlgoName.equalsIgnoreCase("BestFirstSearch")) {
+            return new BestFirstSearch();
+        } else if (searchAlgoName.equalsIgnoreCase("DepthFirstSearch")) {
+            return new DepthFirstSearch();
+        } else if (searchAlgoName.equalsIgnoreCase("AStarSearch")) {
+            return new AStarSearch();
+        } else if (searchAlgoName.equalsIgnoreCase("BidirectionalBreadthFirstSearch")) {
+            return new BidirectionalBreadthFirstSearch();
+        } else if (searchAlgoName.equalsIgnoreCase("JumpPointSearch")) {
+            return new JumpPointSearch();
+        } else if (searchAlgoName.equalsIgnoreCase("ParallelBreadthFirstSearch")) {
+            return new ParallelBreadthFirstSearch();
+        } else if (searchAlgoName.equalsIgnoreCase("BitboardBreadthFirstSearch")) {
+            return new BitboardBreadthFirstSearch();
+        } else if (searchAlgoName.equalsIgnoreCase("DialSearch")) {
+            return new DialSearch();
+        } else if (searchAlgoName.equalsIgnoreCase("PortfolioSearch")) {
+            // Only the cheapest path algorithms unless the configuration asks for the fastest answer of any length
+            return new PortfolioSearch(!Configurations.getInstance().getPortfolioMode().equalsIgnoreCase("fastest"));
+        }
+        return null;
+    }
+
+    // The algorithms whose solutions are shortest paths, which the tree oracle finds as well
+    private boolean findsShortestPath(ISearchingAlgorithm searchingAlgorithm) {
+        return searchingAlgorithm instanceof BreadthFirstSearch || searchingAlgorithm instanceof AStarSearch
+                || searchingAlgorithm instanceof BidirectionalBreadthFirstSearch || searchingAlgorithm instanceof JumpPointSearch
+                || searchingAlgorithm instanceof ParallelBreadthFirstSearch || searchingAlgorithm instanceof BitboardBreadthFirstSearch
+                || searchingAlgorithm instanceof DialSearch;
+    }
+
+    // The algorithms whose solution states carry the cost from the start rather than the cost of their last move,
+    // the oracle's solutions follow the configured algorithm so clients see the same costs on any maze
+    private boolean accumulatesCost(ISearchingAlgorithm searchingAlgorithm) {
+        return searchingAlgorithm instanceof AStarSearch || searchingAlgorithm instanceof DialSearch
+                || searchingAlgorithm instanceof JumpPointSearch;
+    }
+
+    // Null when the maze has loops, checking stops at the first loop so a maze that is not a tree costs little.
+    // A build stopped by the control throws SearchCancelledException and leaves nothing in the cache
+    private TreePathOracle treeOracleFor(Maze maze, SearchControl control) {
+        String key = maze.getRows() + "x" + maze.getColumns() + maze.getStartPosition() + maze;
+        return cached(treeOracles, cacheKey(key), () -> Optional.ofNullable(TreePathOracle.forMaze(maze, control))).orElse(null);
+    }
+
+    // The answer to a request that used up its time budget
+    private static Solution timedOutSolution() {
+        Solution timedOut = new Solution();
+        timedOut.setTimedOut(true);
+        return timedOut;
+    }
+
+    // All routes of a batch share one preparation of the maze and are solved in parallel, within the solve time budget.
+    // A batch of more than maxBatchRoutes routes, or one the batch solver can't take (no maze, starts and goals of
+    // different lengths, a maze too large to index) is refused with an empty array
+    private void sendBatchSolutionsToClient(BatchSolveRequest batchRequest, ObjectOutputStream outputStream) {
+        Configurations config = Configurations.getInstance();
+        Solution[] solutions = new Solution[0];
+        if (batchRequest.getMaze() != null && batchRequest.getStarts().size() <= config.getMaxBatchRoutes()) {
+            SearchControl control = new SearchControl(config.getSolveTimeBudget(), TimeUnit.MILLISECONDS);
+            try {
+                BatchSolver batchSolver = new BatchSolver(batchRequest.getMaze(), control);
+                solutions = batchSolver.solveAll(batchRequest.getStarts(), batchRequest.getGoals());
+            } catch (IllegalArgumentException e) {
+                solutions = new Solution[0];
+            }
+        }
+        try {
+            outputStream.writeObject(solutions);
+            outputStream.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Hints for a maze all come from the same distance field, so it is built once per maze and goal and kept in memory.
+    // A large maze gets the path from the player's position instead, found on its hierarchical graph, which is built once per maze
+    // whatever the goal, as the clusters and their entrances only depend on the walls.
+    // Building either one is stopped at the solve time budget and answered with a timed out Solution. A query on a built
+    // graph is not, it searches the abstract graph and a few clusters only
+    private void sendHintToClient(HintRequest hintRequest, ObjectOutputStream outputStream) {
+        Configurations config = Configurations.getInstance();
+        Maze maze = hintRequest.getMaze();
+        SearchControl control = new SearchControl(config.getSolveTimeBudget(), TimeUnit.MILLISECONDS);
+        Object hint;
+        try {
+            if ((long) maze.getRows() * maze.getColumns() >= config.getHierarchicalHintThreshold()) {
+                String key = maze.getRows() + "x" + maze.getColumns() + maze;
+                HierarchicalPathFinder pathFinder = cached(pathFinders, cacheKey(key),
+                        () -> new HierarchicalPathFinder(maze, HierarchicalPathFinder.DEFAULT_CLUSTER_SIZE, control));
+                hint = pathFinder.solve(hintRequest.getPosition(), maze.getGoalPosition());
+            } else {
+                String key = maze.getRows() + "x" + maze.getColumns() + maze.getGoalPosition() + maze;
+                hint = cached(distanceFields, cacheKey(key), () -> new GoalDistanceField(maze, control));
+            }
+        } catch (SearchCancelledException e) {
+            hint = timedOutSolution(); // Not cached, a later request may get more time
+        }
+        try {
+            outputStream.writeObject(hint);
+            outputStream.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // A map that forgets the least recently used entry once it holds more than CACHED_MAZES
+    private static <V> Map<String, V> lruCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<String, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > CACHED_MAZES;
+            }
+        });
+    }
+
+    // The cached value, built outside the cache's lock when missing so other requests are not held up meanwhile.
+    // Two requests may build the same value at once, the first one stored is kept
+    private static <V> V cached(Map<String, V> cache, String key, Supplier<V> build) {
+        V value = cache.get(key);
+        if (value == null) {
+            value = build.get();
+            V stored = cache.putIfAbsent(key, value);
+            if (stored != null)
+                value = stored;
+        }
+        return value;
+    }
+
+    // The SHA-256 of a key that repeats a whole maze, so a cache entry doesn't hold a char per cell
+    private String cacheKey(String request) {
+        String digest = getFileNameFromBinaryString(request);
+        return digest == null ? request : digest;
+    }
+
     // Method to send the solution to the client
     private void sendSolutionToClient(Solution solution, ObjectOutputStream outputStream) {
         try {
@@ -40,7 +40,6 @@ public class MyViewController implements IView, Observer {
     @FXML
     private MazeDisplayer mazeDisplayer;
     private boolean ctrlKey = false;
-    private int hintNum = 1;
     @FXML
     private javafx.scene.control.TextField textField_mazeRows;
     @FXML
@@ -242,9 +241,7 @@ public class MyViewController implements IView, Observer {
     }
 
     public void GiveHint(ActionEvent actionEvent) {
-        viewModel.Hint();
-        mazeDisplayer.drawHint(viewModel.getRowsSolution().get(hintNum), viewModel.getColumnsSolution().get(hintNum));
-        hintNum++;
+        viewModel.Hint(); // the hint is drawn by DisplayMaze once the model updates
     }
 
     @Override
@@ -258,8 +255,9 @@ public class MyViewController implements IView, Observer {
             mazeDisplayer.drawSolution(viewModel.getRowsSolution(), viewModel.getColumnsSolution());
 
         else if (viewModel.isHint()) {
-            mazeDisplayer.drawHint(viewModel.getRowsSolution().get(hintNum), viewModel.getColumnsSolution().get(hintNum));
-            hintNum++;
+            // the hint path starts at the character, so its second cell is the next move
+            if (viewModel.getRowsSolution() != null && viewModel.getRowsSolution().size() > 1)
+                mazeDisplayer.drawHint(viewModel.getRowsSolution().get(1), viewModel.getColumnsSolution().get(1));
             viewModel.setHint(false);
         } else {
             mazeDisplayer.setGoalPoint(viewModel.getGoalPoint()[0], viewModel.getGoalPoint()[1]);
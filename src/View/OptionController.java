@@ -19,9 +19,9 @@ public class OptionController {
     public javafx.scene.control.ComboBox solvingMethodCB;
     public javafx.scene.control.ComboBox numberThreadCB;
     public javafx.scene.control.Button saveButton;
-    private ObservableList<String> solve = FXCollections.observableArrayList("Best First Search", "Breadth First Search", "Depth First Search");
+    private ObservableList<String> solve = FXCollections.observableArrayList("Best First Search", "Breadth First Search", "Depth First Search", "A Star Search", "Bidirectional Breadth First Search", "Jump Point Search", "Bitboard Breadth First Search", "Dial Search", "Portfolio Search");
     private ObservableList<String> number = FXCollections.observableArrayList("1", "2", "3");
-    private ObservableList<String> generate = FXCollections.observableArrayList("Best First Search", "Breadth First Search", "Depth First Search");
+    private ObservableList<String> generate = FXCollections.observableArrayList("Best First Search", "Breadth First Search", "Depth First Search", "Parallel Depth First Search", "Eller", "Kruskal");
 
     public void initialize(){
         generateMazeCB.setItems(generate);
@@ -1,10 +1,17 @@
 package algorithms.mazeGenerators;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 public abstract class AMazeGenerator implements IMazeGenerator {
     public AMazeGenerator() {
     }
 
-    public abstract Maze generate(int var1, int var2);
+    // A maze of a fresh random seed
+    public Maze generate(int rows, int columns) {
+        return this.generate(rows, columns, ThreadLocalRandom.current().nextLong());
+    }
+
+    public abstract Maze generate(int rows, int columns, long seed);
 
     public long measureAlgorithmTimeMillis(int rows, int columns) {
         if (rows > 0 && columns > 0) {
@@ -0,0 +1,230 @@
+package algorithms.mazeGenerators;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * EllerMazeGenerator carves a perfect maze one row of rooms (the even cells) at a time with Eller's algorithm.
+ * Only the current row is kept: the set of every room of the row, joined to the right at random when the room on
+ * its right is in another set, and then at least one passage down from every set, so every room below either
+ * carries its set on or starts a new one. The last row joins every pair of neighbouring sets, which leaves one.
+ * Memory grows with the columns only, so writeTo streams a maze of any height in the v2 layout, the first rows
+ * written before the last ones are carved.
+ */
+public class EllerMazeGenerator extends AMazeGenerator {
+    private static final int CHUNK_SIZE = 1 << 13;
+
+    public EllerMazeGenerator() {
+    }
+
+    public Maze generate(int rows, int columns, long seed) {
+        if (rows < 1 || columns < 1) {
+            return null; // Return null if dimensions are invalid
+        }
+        Maze maze = new Maze(rows, columns);
+        maze.allWalls(); // Start with all walls in place
+        try {
+            this.carve(rows, columns, seed, (row, walls) -> {
+                for (int column = 0; column < columns; column++) {
+                    if ((walls[column >>> 6] & (1L << column)) == 0) {
+                        maze.setCell(row, column, 0);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Only writeTo's rows can fail
+        }
+        return maze;
+    }
+
+    /**
+     * Writes the maze of a seed in the v2 layout (see Maze.writeTo) as its rows are carved, without building it
+     * @param rows number of rows
+     * @param columns number of columns
+     * @param seed the seed, the same as generate(rows, columns, seed) builds
+     * @param out the stream to write to, written a chunk at a time and not closed
+     * @throws IOException if the stream fails
+     */
+    public void writeTo(int rows, int columns, long seed, OutputStream out) throws IOException {
+        if (rows < 1 || columns < 1) {
+            throw new IllegalArgumentException("A maze needs at least one row and one column");
+        }
+        Maze.writeHeader(out, rows, columns, new Position(0, 0), new Position(rows - 1, columns - 1));
+        PackedWriter packed = new PackedWriter(out, columns);
+        this.carve(rows, columns, seed, packed);
+        packed.finish();
+    }
+
+    // Receives every row of cells once, top to bottom, bit c of the words is 1 when cell c is a wall
+    private interface RowWriter {
+        void write(int row, long[] walls) throws IOException;
+    }
+
+    // Packs the rows 8 cells per byte, first cell in the most significant bit, as the v2 layout keeps them
+    private static class PackedWriter implements RowWriter {
+        private final OutputStream out;
+        private final int columns;
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+        private int length;
+        private long pending; // the bits not yet written, first bit highest
+        private int pendingBits;
+
+        PackedWriter(OutputStream out, int columns) {
+            this.out = out;
+            this.columns = columns;
+        }
+
+        public void write(int row, long[] walls) throws IOException {
+            for (int column = 0; column < columns; column += 64) {
+                int count = Math.min(64, columns - column);
+                long bits = Long.reverse(walls[column >>> 6]);
+                if (count < 64) {
+                    bits &= -1L << (64 - count);
+                }
+                pending |= bits >>> pendingBits;
+                if (pendingBits + count < 64) {
+                    pendingBits += count;
+                    continue;
+                }
+                this.writeLong(pending);
+                int left = pendingBits + count - 64;
+                pending = left == 0 ? 0 : bits << (count - left);
+                pendingBits = left;
+            }
+        }
+
+        void finish() throws IOException {
+            for (int bits = 0; bits < pendingBits; bits += 8) {
+                this.writeByte((byte) (pending >>> (56 - bits)));
+            }
+            out.write(chunk, 0, length);
+            length = 0;
+        }
+
+        private void writeLong(long value) throws IOException {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                this.writeByte((byte) (value >>> shift));
+            }
+        }
+
+        private void writeByte(byte value) throws IOException {
+            chunk[length++] = value;
+            if (length == chunk.length) {
+                out.write(chunk);
+                length = 0;
+            }
+        }
+    }
+
+    private void carve(int rows, int columns, long seed, RowWriter writer) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        int roomRows = (rows + 1) / 2;
+        int roomColumns = (columns + 1) / 2;
+        int[] parent = new int[roomColumns]; // the sets of the current row, a union-find over its rooms
+        int[] root = new int[roomColumns];
+        boolean[] down = new boolean[roomColumns];
+        boolean[] hasDown = new boolean[roomColumns]; // by set root
+        int[] members = new int[roomColumns]; // by set root
+        int[] chosen = new int[roomColumns]; // by set root, a member drawn at random to carry the set down
+        long[] walls = new long[(columns + 63) >>> 6];
+        for (int i = 0; i < roomColumns; i++) {
+            parent[i] = i;
+        }
+
+        for (int roomRow = 0; roomRow < roomRows; roomRow++) {
+            boolean last = roomRow == roomRows - 1;
+
+            // The rooms, joined to the right at random, or always in the last row
+            Arrays.fill(walls, -1L);
+            for (int i = 0; i < roomColumns; i++) {
+                open(walls, 2 * i);
+            }
+            for (int i = 0; i + 1 < roomColumns; i++) {
+                int left = find(parent, i);
+                int right = find(parent, i + 1);
+                if (left != right && (last || random.nextBoolean())) {
+                    parent[right] = left;
+                    open(walls, 2 * i + 1);
+                }
+            }
+            this.writeRow(writer, 2 * roomRow, rows, columns, walls, random);
+            if (2 * roomRow + 1 == rows) {
+                break;
+            }
+
+            // The passages down, at least one per set, and the sets of the next row
+            Arrays.fill(walls, -1L);
+            if (!last) {
+                for (int i = 0; i < roomColumns; i++) {
+                    root[i] = find(parent, i);
+                    hasDown[root[i]] = false;
+                    members[root[i]] = 0;
+                }
+                for (int i = 0; i < roomColumns; i++) {
+                    down[i] = random.nextBoolean();
+                    hasDown[root[i]] |= down[i];
+                    if (random.nextInt(++members[root[i]]) == 0) {
+                        chosen[root[i]] = i;
+                    }
+                }
+                for (int i = 0; i < roomColumns; i++) {
+                    if (!hasDown[root[i]]) {
+                        down[chosen[root[i]]] = true;
+                        hasDown[root[i]] = true;
+                    }
+                    chosen[root[i]] = -1; // From here on the first room of the set that goes down
+                }
+                for (int i = 0; i < roomColumns; i++) {
+                    if (down[i]) {
+                        open(walls, 2 * i);
+                        if (chosen[root[i]] < 0) {
+                            chosen[root[i]] = i;
+                        }
+                        parent[i] = chosen[root[i]];
+                    } else {
+                        parent[i] = i; // A room of a new set
+                    }
+                }
+            }
+            this.writeRow(writer, 2 * roomRow + 1, rows, columns, walls, random);
+        }
+    }
+
+    // Writes a row, with the goal corner drawn the way Maze.setGoal draws it
+    private void writeRow(RowWriter writer, int row, int rows, int columns, long[] walls, SplittableRandom random)
+            throws IOException {
+        if (columns % 2 == 0) {
+            if (row == rows - 2 || random.nextInt(2) == 0) {
+                open(walls, columns - 1);
+            }
+        }
+        if (rows % 2 == 0 && row == rows - 1) {
+            for (int column = 0; column < columns; column++) {
+                if (random.nextInt(2) == 0) {
+                    open(walls, column);
+                }
+            }
+            if (columns > 1) {
+                open(walls, columns - 2);
+            }
+        }
+        if (row == rows - 1) {
+            open(walls, columns - 1);
+        }
+        writer.write(row, walls);
+    }
+
+    private static void open(long[] walls, int column) {
+        walls[column >>> 6] &= ~(1L << column);
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+}
@@ -4,7 +4,7 @@ public class EmptyMazeGenerator extends AMazeGenerator {
     public EmptyMazeGenerator() {
     }
 
-    public Maze generate(int rows, int columns) {
+    public Maze generate(int rows, int columns, long seed) { // Every empty maze is the same, the seed is not used
         if (rows >= 1 && columns >= 1) {
             Maze maze = new Maze(rows, columns);
             return maze;
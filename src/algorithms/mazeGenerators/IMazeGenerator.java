@@ -3,5 +3,11 @@ package algorithms.mazeGenerators;
 public interface IMazeGenerator {
     Maze generate(int var1, int var2);
 
+    /**
+     * generate a maze that only depends on its arguments
+     * @return the same maze for the same generator, rows, columns and seed
+     */
+    Maze generate(int rows, int columns, long seed);
+
     long measureAlgorithmTimeMillis(int var1, int var2);
 }
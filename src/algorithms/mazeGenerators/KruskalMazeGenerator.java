@@ -0,0 +1,172 @@
+package algorithms.mazeGenerators;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * KruskalMazeGenerator carves a perfect maze with randomized Kruskal's algorithm.
+ * The rooms are the even cells and every pair of neighbouring rooms is an edge, the wall cell between them.
+ * The edges are taken in a random order and a wall is opened whenever its two rooms are not connected yet, which
+ * a union-find over the rooms (path compression and union by rank) tells. Its mazes branch more and have shorter
+ * corridors than MyMazeGenerator's.
+ * Everything is kept in primitive arrays: the edges are an int[] of edge ids shuffled on a ForkJoinPool (see
+ * shuffledEdges), and a seed gives the same maze on any number of threads.
+ */
+public class KruskalMazeGenerator extends AMazeGenerator {
+    private static final int CHUNK_SIZE = 1 << 16; // the edges dealt by one task
+    private static final int MAX_CHUNKS = 1 << 10; // also the number of buckets, so the counts stay small
+
+    private final ForkJoinPool pool;
+
+    public KruskalMazeGenerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool the pool the edges are shuffled on
+     */
+    public KruskalMazeGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public Maze generate(int rows, int columns, long seed) {
+        if (rows < 1 || columns < 1) {
+            return null; // Return null if dimensions are invalid
+        }
+        if ((long) rows * columns > Integer.MAX_VALUE) {
+            return new MyMazeGenerator().generate(rows, columns, seed); // Too many edges for int ids
+        }
+        Maze maze = new Maze(rows, columns);
+        maze.allWalls(); // Start with all walls in place
+        long[] words = maze.words();
+        int roomRows = (rows + 1) / 2;
+        int roomColumns = (columns + 1) / 2;
+        int rooms = roomRows * roomColumns;
+        for (int room = 0; room < rooms; room++) {
+            open(words, cell(room, roomColumns, columns));
+        }
+
+        // Edge 2 * room is the wall right of the room, edge 2 * room + 1 the wall below it
+        int[] order = this.shuffledEdges(roomRows, roomColumns, seed);
+
+        int[] parent = new int[rooms];
+        byte[] rank = new byte[rooms];
+        for (int room = 0; room < rooms; room++) {
+            parent[room] = room;
+        }
+        int joined = 1;
+        for (int i = 0; i < order.length && joined < rooms; i++) {
+            int edge = order[i];
+            int room = edge >>> 1;
+            boolean right = (edge & 1) == 0;
+            if (union(parent, rank, room, right ? room + 1 : room + roomColumns)) {
+                long roomCell = cell(room, roomColumns, columns);
+                open(words, right ? roomCell + 1 : roomCell + columns); // The wall between the two rooms
+                joined++;
+            }
+        }
+
+        maze.setGoal(new SplittableRandom(seed));
+        return maze;
+    }
+
+    /**
+     * Every edge of the grid once, in a random order. The edges are split into chunks and every edge is dealt
+     * to a random bucket, the buckets are laid out one after the other and each is shuffled on its own
+     * (Fisher-Yates), which orders the edges uniformly at random. Chunks and buckets are spread over the pool,
+     * each with its own generator drawn from the seed, so the order does not depend on the threads
+     */
+    private int[] shuffledEdges(int roomRows, int roomColumns, long seed) {
+        int rightEdges = roomRows * (roomColumns - 1);
+        int edges = rightEdges + (roomRows - 1) * roomColumns;
+        int chunks = Math.max(1, Math.min(MAX_CHUNKS, edges / CHUNK_SIZE));
+        int chunkSize = (edges + chunks - 1) / chunks;
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] chunkSeeds = new long[chunks];
+        long[] bucketSeeds = new long[chunks];
+        for (int i = 0; i < chunks; i++) {
+            chunkSeeds[i] = random.nextLong();
+            bucketSeeds[i] = random.nextLong();
+        }
+
+        // How many edges every chunk deals to every bucket
+        int[][] offsets = new int[chunks][chunks];
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            SplittableRandom dealer = new SplittableRandom(chunkSeeds[chunk]);
+            for (int i = chunk * chunkSize, end = Math.min(edges, i + chunkSize); i < end; i++) {
+                offsets[chunk][dealer.nextInt(chunks)]++;
+            }
+        })).join();
+        int[] bucketStarts = new int[chunks + 1];
+        int position = 0;
+        for (int bucket = 0; bucket < chunks; bucket++) {
+            bucketStarts[bucket] = position;
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int count = offsets[chunk][bucket];
+                offsets[chunk][bucket] = position;
+                position += count;
+            }
+        }
+        bucketStarts[chunks] = edges;
+
+        // Deal again with the same generators, now into place
+        int[] order = new int[edges];
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            SplittableRandom dealer = new SplittableRandom(chunkSeeds[chunk]);
+            for (int i = chunk * chunkSize, end = Math.min(edges, i + chunkSize); i < end; i++) {
+                int edge = i < rightEdges
+                        ? 2 * (i / (roomColumns - 1) * roomColumns + i % (roomColumns - 1))
+                        : 2 * (i - rightEdges) + 1;
+                order[offsets[chunk][dealer.nextInt(chunks)]++] = edge;
+            }
+        })).join();
+
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(bucket -> {
+            SplittableRandom shuffler = new SplittableRandom(bucketSeeds[bucket]);
+            int start = bucketStarts[bucket];
+            for (int i = bucketStarts[bucket + 1] - 1; i > start; i--) {
+                int j = start + shuffler.nextInt(i - start + 1);
+                int edge = order[i];
+                order[i] = order[j];
+                order[j] = edge;
+            }
+        })).join();
+        return order;
+    }
+
+    // The bit of a room's cell, rooms are numbered row-major over the even cells
+    private static long cell(int room, int roomColumns, int columns) {
+        return 2L * (room / roomColumns) * columns + 2L * (room % roomColumns);
+    }
+
+    private static void open(long[] words, long bit) {
+        words[(int) (bit >>> 6)] &= ~(1L << bit);
+    }
+
+    // Joins the sets of two rooms, the lower ranked root under the other, false if they were one set already
+    private static boolean union(int[] parent, byte[] rank, int a, int b) {
+        a = find(parent, a);
+        b = find(parent, b);
+        if (a == b) {
+            return false;
+        }
+        if (rank[a] < rank[b]) {
+            parent[a] = b;
+        } else {
+            parent[b] = a;
+            if (rank[a] == rank[b]) {
+                rank[a]++;
+            }
+        }
+        return true;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+}
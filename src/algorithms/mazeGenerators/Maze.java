@@ -1,13 +1,30 @@
 package algorithms.mazeGenerators;
 
 
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.random.RandomGenerator;
 
+/**
+ * A two dimensional maze of open (0) and wall (1) cells.
+ * The cells are bit-packed row-major into a long[] word array: cell (row, column) is bit
+ * (row * columns + column) of the grid, stored at word index / 64, bit index % 64.
+ */
 public class Maze implements Serializable {
-    private int[][] maze;
+    public static final int V1_HEADER_SIZE = 12;
+    public static final int V2_HEADER_SIZE = 28;
+    private static final byte VERSION_2 = 2;
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final long MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private long[] cells;
     private int rows;
     private int columns;
     private Position start;
@@ -24,26 +41,75 @@ public class Maze implements Serializable {
     public Maze(int rows, int columns) {
         this.rows = rows;
         this.columns = columns;
-        this.maze = new int[rows][columns];
+        this.cells = new long[wordCount(rows, columns)];
         this.start = new Position(0, 0);
         this.end = new Position(rows - 1, columns - 1);
     }
 
     public void allWalls() {
-        for(int i = 0; i < this.rows; ++i) {
-            for(int j = 0; j < this.columns; ++j) {
-                this.maze[i][j] = 1;
+        Arrays.fill(this.cells, -1L);
+        this.clearUnusedBits();
+    }
+
+    public void setCell(int row, int column, int value) {
+        long index = this.bitIndex(row, column);
+        if (value == 0) {
+            this.cells[(int)(index >>> 6)] &= ~(1L << index);
+        } else {
+            this.cells[(int)(index >>> 6)] |= 1L << index;
+        }
+    }
+
+    public int getCell(int row, int column) {
+        long index = this.bitIndex(row, column);
+        return (int)(this.cells[(int)(index >>> 6)] >>> index) & 1;
+    }
+
+    /**
+     * Copies one row of cells into the given array, one byte (0 or 1) per cell.
+     * @param row the row to read
+     * @param destination the array to fill
+     * @param offset the index in destination of the row's first cell
+     */
+    public void getRow(int row, byte[] destination, int offset) {
+        long index = this.bitIndex(row, 0);
+        long word = this.cells[(int)(index >>> 6)];
+        for(int column = 0; column < this.columns; ++column, ++index) {
+            if ((index & 63) == 0) {
+                word = this.cells[(int)(index >>> 6)];
             }
+            destination[offset + column] = (byte)((word >>> index) & 1);
         }
+    }
 
+    /**
+     * Overwrites one row of cells from the given array, one byte per cell (0 is open, anything else is a wall).
+     * @param row the row to write
+     * @param source the array to read from
+     * @param offset the index in source of the row's first cell
+     */
+    public void setRow(int row, byte[] source, int offset) {
+        long index = this.bitIndex(row, 0);
+        for(int column = 0; column < this.columns; ++column, ++index) {
+            long mask = 1L << index;
+            if (source[offset + column] == 0) {
+                this.cells[(int)(index >>> 6)] &= ~mask;
+            } else {
+                this.cells[(int)(index >>> 6)] |= mask;
+            }
+        }
     }
 
-    public void setCell(int row, int column, int value) {
-        this.maze[row][column] = value;
+    /**
+     * @return a copy of the packed cell words, row-major, bit i of the grid is bit (i % 64) of word (i / 64)
+     */
+    public long[] toWordArray() {
+        return this.cells.clone();
     }
 
-    public int getCell(int row, int column) {
-        return this.maze[row][column];
+    // The packed cell words themselves, for the generators of this package to carve in place
+    long[] words() {
+        return this.cells;
     }
 
     public Position getStartPosition() {
@@ -55,7 +121,13 @@ public class Maze implements Serializable {
     }
 
     public void setGoal() {
-        Random ran = new Random();
+        this.setGoal(new Random());
+    }
+
+    /**
+     * Opens the goal corner, drawing the walls of an even last row or column from the given random generator
+     */
+    public void setGoal(RandomGenerator ran) {
         int i;
         if (this.getColumns() % 2 == 0) {
             for(i = 0; i < this.getRows(); ++i) {
@@ -77,11 +149,13 @@ public class Maze implements Serializable {
     }
 
     public void print() {
+        byte[] row = new byte[this.columns];
         for(int i = 0; i < this.rows; ++i) {
+            this.getRow(i, row, 0);
             System.out.print("[ ");
 
             for(int j = 0; j < this.columns; ++j) {
-                System.out.print(this.maze[i][j] + " ");
+                System.out.print(row[j] + " ");
             }
 
             System.out.println("]");
@@ -90,31 +164,79 @@ public class Maze implements Serializable {
     }
 
     public String toString() {
-        int[][] tmp = this.maze;
-        String S = (String)Arrays.stream(tmp).flatMapToInt(Arrays::stream).mapToObj(String::valueOf).collect(Collectors.joining(""));
-        S = "\"" + S + "\"";
-        return S;
+        StringBuilder S = new StringBuilder(this.rows * this.columns + 2);
+        byte[] row = new byte[this.columns];
+        S.append('"');
+        for(int i = 0; i < this.rows; ++i) {
+            this.getRow(i, row, 0);
+            for(int j = 0; j < this.columns; ++j) {
+                S.append((char)('0' + row[j]));
+            }
+        }
+        S.append('"');
+        return S.toString();
     }
 
+    /**
+     * Builds a maze from either byte layout. A v1 array starts with its (non-zero) row count, a v2 array starts
+     * with two zero bytes, so the layout is detected from the first two bytes.
+     * @param myByteMaze the maze bytes, as written by toByteArray() or writeTo()
+     * @throws IllegalArgumentException if a v2 header is cut short, names an unknown version or dimensions that
+     * are not positive or too large, or the cells are shorter than its dimensions
+     */
     public Maze(byte[] myByteMaze) {
+        if (isVersion2(myByteMaze)) {
+            if (myByteMaze.length < V2_HEADER_SIZE) {
+                throw new IllegalArgumentException("A v2 maze needs a " + V2_HEADER_SIZE + "-byte header, got " + myByteMaze.length + " bytes");
+            }
+            checkVersion(myByteMaze);
+            this.rows = readInt(myByteMaze, 4);
+            this.columns = readInt(myByteMaze, 8);
+            checkDimensions(this.rows, this.columns);
+            if (myByteMaze.length - V2_HEADER_SIZE < (((long)this.rows * this.columns + 7) >>> 3)) {
+                throw new IllegalArgumentException("A " + this.rows + "x" + this.columns + " maze needs more than the " + (myByteMaze.length - V2_HEADER_SIZE) + " bytes of cells given");
+            }
+            this.start = new Position(readInt(myByteMaze, 12), readInt(myByteMaze, 16));
+            this.end = new Position(readInt(myByteMaze, 20), readInt(myByteMaze, 24));
+            this.cells = new long[wordCount(this.rows, this.columns)];
+            this.unpackBits(myByteMaze, V2_HEADER_SIZE, myByteMaze.length - V2_HEADER_SIZE, 0L);
+            this.clearUnusedBits();
+            return;
+        }
         this.rows = Byte.toUnsignedInt(myByteMaze[0]) * 256 + Byte.toUnsignedInt(myByteMaze[1]);
         this.columns = Byte.toUnsignedInt(myByteMaze[2]) * 256 + Byte.toUnsignedInt(myByteMaze[3]);
         this.start = new Position(Byte.toUnsignedInt(myByteMaze[4]) * 256 + Byte.toUnsignedInt(myByteMaze[5]), Byte.toUnsignedInt(myByteMaze[6]) * 256 + Byte.toUnsignedInt(myByteMaze[7]));
         this.end = new Position(Byte.toUnsignedInt(myByteMaze[8]) * 256 + Byte.toUnsignedInt(myByteMaze[9]), Byte.toUnsignedInt(myByteMaze[10]) * 256 + Byte.toUnsignedInt(myByteMaze[11]));
-        this.maze = new int[this.rows][this.columns];
-        int index = 12;
+        this.cells = new long[wordCount(this.rows, this.columns)];
+        int index = V1_HEADER_SIZE;
 
         for(int row = 0; row < this.rows; ++row) {
-            for(int column = 0; column < this.columns; ++column) {
-                this.maze[row][column] = myByteMaze[index];
-                ++index;
-            }
+            this.setRow(row, myByteMaze, index);
+            index += this.columns;
         }
 
     }
 
+    /**
+     * Encodes the maze in the v1 layout (2-byte header fields, one byte per cell) when it fits in it,
+     * otherwise in the v2 layout (see writeTo).
+     * @return the encoded maze
+     */
     public byte[] toByteArray() {
-        byte[] bytesArray = new byte[this.rows * this.columns + 12];
+        if (!fitsVersion1(this.rows, this.columns)) {
+            long length = byteArrayLength(this.rows, this.columns);
+            if (length > MAX_ARRAY_LENGTH) {
+                throw new IllegalStateException("A " + this.rows + "x" + this.columns + " maze does not fit in a byte array, use writeTo instead");
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int)length);
+            try {
+                this.writeTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // ByteArrayOutputStream never throws
+            }
+            return out.toByteArray();
+        }
+        byte[] bytesArray = new byte[this.rows * this.columns + V1_HEADER_SIZE];
         bytesArray[0] = (byte)(this.rows / 256);
         bytesArray[1] = (byte)(this.rows % 256);
         bytesArray[2] = (byte)(this.columns / 256);
@@ -127,15 +249,191 @@ public class Maze implements Serializable {
         bytesArray[9] = (byte)(this.getGoalPosition().getRowIndex() % 256);
         bytesArray[10] = (byte)(this.getGoalPosition().getColumnIndex() / 256);
         bytesArray[11] = (byte)(this.getGoalPosition().getColumnIndex() % 256);
-        int index = 12;
+        int index = V1_HEADER_SIZE;
 
         for(int row = 0; row < this.rows; ++row) {
-            for(int column = 0; column < this.columns; ++column) {
-                bytesArray[index] = (byte)this.maze[row][column];
-                ++index;
-            }
+            this.getRow(row, bytesArray, index);
+            index += this.columns;
         }
 
         return bytesArray;
     }
+
+    /**
+     * Writes the maze in the v2 layout, a chunk at a time:
+     * bytes 0-1 are zero (a v1 maze never has zero rows), byte 2 is the version, byte 3 is reserved,
+     * then rows, columns, start row, start column, goal row and goal column as 4-byte big-endian ints,
+     * followed by the cells row-major, 8 cells per byte, first cell in the most significant bit.
+     * @param out the stream to write to
+     * @throws IOException if the stream fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        writeHeader(out, this.rows, this.columns, this.start, this.end);
+
+        long bodyLength = ((long)this.rows * this.columns + 7) >>> 3;
+        byte[] chunk = new byte[(int)Math.min(CHUNK_SIZE, bodyLength)];
+        long bit = 0;
+        for(long written = 0; written < bodyLength; written += chunk.length) {
+            int length = (int)Math.min(chunk.length, bodyLength - written);
+            for(int i = 0; i < length; ++i, bit += 8) {
+                chunk[i] = (byte)(Integer.reverse(this.bitsAt(bit)) >>> 24);
+            }
+            out.write(chunk, 0, length);
+        }
+    }
+
+    // The v2 header, for the generators of this package that write the cells themselves as they make them
+    static void writeHeader(OutputStream out, int rows, int columns, Position start, Position goal) throws IOException {
+        byte[] header = new byte[V2_HEADER_SIZE];
+        header[2] = VERSION_2;
+        writeInt(header, 4, rows);
+        writeInt(header, 8, columns);
+        writeInt(header, 12, start.getRowIndex());
+        writeInt(header, 16, start.getColumnIndex());
+        writeInt(header, 20, goal.getRowIndex());
+        writeInt(header, 24, goal.getColumnIndex());
+        out.write(header);
+    }
+
+    /**
+     * Reads a maze in either layout, a chunk at a time, so that mazes larger than a single byte array can be loaded.
+     * @param in the stream to read from, positioned at the start of the maze
+     * @return the maze
+     * @throws IOException if the stream fails or ends before the maze does
+     * @throws IllegalArgumentException if a v2 header names an unknown version or dimensions that are not positive or too large
+     */
+    public static Maze readFrom(InputStream in) throws IOException {
+        byte[] header = readFully(in, new byte[V1_HEADER_SIZE]);
+        if (!isVersion2(header)) {
+            Maze maze = new Maze(Byte.toUnsignedInt(header[0]) * 256 + Byte.toUnsignedInt(header[1]), Byte.toUnsignedInt(header[2]) * 256 + Byte.toUnsignedInt(header[3]));
+            maze.start = new Position(Byte.toUnsignedInt(header[4]) * 256 + Byte.toUnsignedInt(header[5]), Byte.toUnsignedInt(header[6]) * 256 + Byte.toUnsignedInt(header[7]));
+            maze.end = new Position(Byte.toUnsignedInt(header[8]) * 256 + Byte.toUnsignedInt(header[9]), Byte.toUnsignedInt(header[10]) * 256 + Byte.toUnsignedInt(header[11]));
+            byte[] row = new byte[maze.columns];
+            for(int i = 0; i < maze.rows; ++i) {
+                maze.setRow(i, readFully(in, row), 0);
+            }
+            return maze;
+        }
+        checkVersion(header);
+        byte[] rest = readFully(in, new byte[V2_HEADER_SIZE - V1_HEADER_SIZE]);
+        checkDimensions(readInt(header, 4), readInt(header, 8));
+        Maze maze = new Maze(readInt(header, 4), readInt(header, 8));
+        maze.start = new Position(readInt(rest, 0), readInt(rest, 4));
+        maze.end = new Position(readInt(rest, 8), readInt(rest, 12));
+
+        long bodyLength = ((long)maze.rows * maze.columns + 7) >>> 3;
+        byte[] chunk = new byte[(int)Math.min(CHUNK_SIZE, bodyLength)];
+        for(long read = 0; read < bodyLength; read += chunk.length) {
+            int length = (int)Math.min(chunk.length, bodyLength - read);
+            readFully(in, chunk, length);
+            maze.unpackBits(chunk, 0, length, read << 3);
+        }
+        maze.clearUnusedBits();
+        return maze;
+    }
+
+    /**
+     * @param rows number of rows
+     * @param columns number of columns
+     * @return the length of toByteArray() for a maze of this size, v1 or v2 depending on whether the maze fits v1
+     */
+    public static long byteArrayLength(int rows, int columns) {
+        if (fitsVersion1(rows, columns)) {
+            return (long)rows * columns + V1_HEADER_SIZE;
+        }
+        return V2_HEADER_SIZE + (((long)rows * columns + 7) >>> 3);
+    }
+
+    // Bit index of a cell in the row-major grid; long so that mazes beyond 2^31 cells still address correctly
+    private long bitIndex(int row, int column) {
+        if (row < 0 || row >= this.rows || column < 0 || column >= this.columns) {
+            throw new IndexOutOfBoundsException("Cell (" + row + "," + column + ") is outside a " + this.rows + "x" + this.columns + " maze");
+        }
+        return (long)row * this.columns + column;
+    }
+
+    // Keeps the bits past the last cell zero, so whole-word scans never see phantom walls
+    private void clearUnusedBits() {
+        int used = (int)(((long)this.rows * this.columns) & 63);
+        if (used != 0) {
+            this.cells[this.cells.length - 1] &= (1L << used) - 1;
+        }
+    }
+
+    // The 8 cells starting at a bit offset, first cell in the lowest bit
+    private int bitsAt(long bit) {
+        int word = (int)(bit >>> 6);
+        int shift = (int)(bit & 63);
+        long bits = this.cells[word] >>> shift;
+        if (shift > 56 && word + 1 < this.cells.length) {
+            bits |= this.cells[word + 1] << (64 - shift);
+        }
+        return (int)(bits & 0xFF);
+    }
+
+    // ORs packed v2 body bytes into the cell words, starting at the given cell bit
+    private void unpackBits(byte[] source, int offset, int length, long bit) {
+        for(int i = 0; i < length; ++i, bit += 8) {
+            long bits = (Integer.reverse(source[offset + i] & 0xFF) >>> 24) & 0xFFL;
+            int word = (int)(bit >>> 6);
+            int shift = (int)(bit & 63);
+            if (word < this.cells.length) {
+                this.cells[word] |= bits << shift;
+            }
+            if (shift > 56 && word + 1 < this.cells.length) {
+                this.cells[word + 1] |= bits >>> (64 - shift);
+            }
+        }
+    }
+
+    private static boolean fitsVersion1(int rows, int columns) {
+        return rows <= 0xFFFF && columns <= 0xFFFF && (long)rows * columns + V1_HEADER_SIZE <= MAX_ARRAY_LENGTH;
+    }
+
+    private static boolean isVersion2(byte[] header) {
+        return header[0] == 0 && header[1] == 0;
+    }
+
+    private static void checkVersion(byte[] header) {
+        if (header[2] != VERSION_2) {
+            throw new IllegalArgumentException("Unsupported maze format version " + header[2]);
+        }
+    }
+
+    // The rows and columns of a v2 header, checked before the cells are allocated so that a corrupt header
+    // fails clearly instead of overflowing the word count or allocating a huge array
+    private static void checkDimensions(int rows, int columns) {
+        if (rows < 1 || columns < 1) {
+            throw new IllegalArgumentException("A maze needs at least one row and one column, the header has " + rows + "x" + columns);
+        }
+        if ((((long)rows * columns + 63) >>> 6) > MAX_ARRAY_LENGTH) {
+            throw new IllegalArgumentException("A " + rows + "x" + columns + " maze is too large to load");
+        }
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16 | (bytes[offset + 2] & 0xFF) << 8 | bytes[offset + 3] & 0xFF;
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte)(value >>> 24);
+        bytes[offset + 1] = (byte)(value >>> 16);
+        bytes[offset + 2] = (byte)(value >>> 8);
+        bytes[offset + 3] = (byte)value;
+    }
+
+    private static byte[] readFully(InputStream in, byte[] buffer) throws IOException {
+        return readFully(in, buffer, buffer.length);
+    }
+
+    private static byte[] readFully(InputStream in, byte[] buffer, int length) throws IOException {
+        if (in.readNBytes(buffer, 0, length) < length) {
+            throw new EOFException("Maze stream ended early");
+        }
+        return buffer;
+    }
+
+    private static int wordCount(int rows, int columns) {
+        return (int)(((long)Math.max(rows, 0) * Math.max(columns, 0) + 63) >>> 6);
+    }
 }
@@ -2,23 +2,44 @@ package algorithms.mazeGenerators;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.Stack;
 
 /**
  * MyMazeGenerator is a maze generation class that uses a variation of the
  * depth-first search (DFS) algorithm. It starts with all walls intact, then
  * iteratively breaks walls in random directions to create a navigable maze.
+ * The carving runs on primitives: cell ids on an int[] stack, one of the 24 orders of
+ * the four directions drawn from a SplittableRandom, and walls cleared straight in the
+ * maze's packed words, so nothing is allocated per cell.
+ * Every random choice comes from the seed, so a seed always carves the same maze.
  */
 public class MyMazeGenerator extends AMazeGenerator {
+    // Every order of the directions up, down, left, right (0 to 3), four entries per order
+    private static final byte[] DIRECTION_ORDERS = directionOrders();
+    private static final int[] ROW_STEPS = {-1, 1, 0, 0};
+    private static final int[] COLUMN_STEPS = {0, 0, -1, 1};
+
     private Stack<Position> unvisited; // Stack to keep track of cells to visit
     private boolean check = false; // Tracks whether a wall was successfully broken
 
     public MyMazeGenerator() {
     }
 
-    public Maze generate(int rows, int columns) {
-        if (rows >= 1 && columns >= 1) {
+    public Maze generate(int rows, int columns, long seed) {
+        if (rows >= 1 && columns >= 1 && (long) rows * columns <= Integer.MAX_VALUE) {
+            Maze maze = new Maze(rows, columns);
+            maze.allWalls(); // Start with all walls in place
+            SplittableRandom random = new SplittableRandom(seed);
+            carve(maze.words(), rows, columns, random);
+            maze.setGoal(random);
+            return maze;
+        } else if (rows >= 1 && columns >= 1) {
+            // Too many cells for int ids, carved with Position objects instead
+            Random random = new Random(seed);
             Maze maze = new Maze(rows, columns);
             maze.allWalls(); // Start with all walls in place
             maze.setCell(0, 0, 0);  // Open the initial cell
@@ -27,7 +48,7 @@ public class MyMazeGenerator extends AMazeGenerator {
 
             // Continue until all cells have been visited
             while(!this.unvisited.isEmpty()) {
-                ArrayList<String> directions = this.randomDirectionsList();// Get a random order of directions
+                ArrayList<String> directions = this.randomDirectionsList(random);// Get a random order of directions
                 this.check = false;
 
                 for(int i = 0; i < 4; ++i) {
@@ -55,25 +76,95 @@ public class MyMazeGenerator extends AMazeGenerator {
                 }
             }
 
-            maze.setGoal();
+            maze.setGoal(random);
             return maze;
         } else {
             return null; // Return null if dimensions are invalid
         }
     }
 
+    /**
+     * The same walk as the Position based loop: each round draws an order of the four directions and tries
+     * them one after the other from the top of the stack, so a carved cell becomes the cell the next direction
+     * is tried from; a round that carves nothing backtracks.
+     * Cell ids are bit indexes of the packed words (row * columns + column).
+     */
+    static void carve(long[] words, int rows, int columns, SplittableRandom random) {
+        int[] stack = new int[1024];
+        int size = 0;
+        words[0] &= ~1L; // Open the initial cell
+        stack[size++] = 0;
+        int cell = 0;
+        int row = 0;
+        int column = 0;
+        while (size > 0) {
+            int order = random.nextInt(24) << 2;
+            boolean carved = false;
+            for (int i = 0; i < 4; i++) {
+                int direction = DIRECTION_ORDERS[order + i];
+                int rowStep = ROW_STEPS[direction];
+                int columnStep = COLUMN_STEPS[direction];
+                int targetRow = row + 2 * rowStep;
+                int targetColumn = column + 2 * columnStep;
+                // Inside the grid when none of these is negative
+                if ((targetRow | (rows - 1 - targetRow) | targetColumn | (columns - 1 - targetColumn)) < 0)
+                    continue;
+                int step = rowStep * columns + columnStep; // cells between the current cell and the wall
+                int target = cell + 2 * step;
+                if ((words[target >>> 6] & (1L << target)) == 0)
+                    continue; // Already open
+                int wall = cell + step;
+                words[target >>> 6] &= ~(1L << target);
+                words[wall >>> 6] &= ~(1L << wall);
+                if (size == stack.length)
+                    stack = Arrays.copyOf(stack, size << 1);
+                stack[size++] = target;
+                cell = target;
+                row += 2 * rowStep;
+                column += 2 * columnStep;
+                carved = true;
+            }
+            // If no walls were broken, backtrack
+            if (!carved && --size > 0) {
+                cell = stack[size - 1];
+                row = cell / columns;
+                column = cell - row * columns;
+            }
+        }
+    }
+
+    private static byte[] directionOrders() {
+        byte[] orders = new byte[24 * 4];
+        int count = 0;
+        for (int a = 0; a < 4; a++)
+            for (int b = 0; b < 4; b++)
+                for (int c = 0; c < 4; c++)
+                    for (int d = 0; d < 4; d++)
+                        if (a != b && a != c && a != d && b != c && b != d && c != d) {
+                            orders[count++] = (byte) a;
+                            orders[count++] = (byte) b;
+                            orders[count++] = (byte) c;
+                            orders[count++] = (byte) d;
+                        }
+        return orders;
+    }
+
     /**
      * Returns a shuffled list of the four possible movement directions.
      *
      * @return a randomized list of directions ("U", "D", "L", "R")
      */
     public ArrayList<String> randomDirectionsList() {
+        return this.randomDirectionsList(new Random());
+    }
+
+    private ArrayList<String> randomDirectionsList(Random random) {
         ArrayList<String> directions = new ArrayList();
         directions.add("U");
         directions.add("D");
         directions.add("L");
         directions.add("R");
-        Collections.shuffle(directions);
+        Collections.shuffle(directions, random);
         return directions;
     }
 
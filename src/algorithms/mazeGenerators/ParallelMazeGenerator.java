@@ -0,0 +1,167 @@
+package algorithms.mazeGenerators;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * ParallelMazeGenerator carves a maze like MyMazeGenerator, split into tiles that are carved at the same time.
+ * The grid is cut into tiles of up to 256 x 256 rooms (the even cells), separated by a row or column of walls.
+ * Every tile is carved on a ForkJoinPool into its own packed words with MyMazeGenerator's depth-first walk, so it
+ * is a perfect maze of its own, and is then copied into the maze. The tiles are stitched by a random spanning tree
+ * of the tile grid: one passage is opened in the wall between the two tiles of every tree edge, so the whole maze
+ * is still perfect. Every tile draws from its own random generator split off the seed in tile order, so a seed
+ * gives the same maze on any number of threads.
+ */
+public class ParallelMazeGenerator extends AMazeGenerator {
+    private static final int TILE_CELLS = 2 * 256 - 1; // the cells of a tile side, a tile starts every TILE_CELLS + 1
+
+    private final ForkJoinPool pool;
+
+    public ParallelMazeGenerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool the pool the tiles are carved on
+     */
+    public ParallelMazeGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public Maze generate(int rows, int columns, long seed) {
+        if (rows < 1 || columns < 1) {
+            return null; // Return null if dimensions are invalid
+        }
+        if ((long) rows * columns > Integer.MAX_VALUE) {
+            return new MyMazeGenerator().generate(rows, columns, seed); // Too many cells for int ids
+        }
+        Maze maze = new Maze(rows, columns);
+        maze.allWalls(); // Start with all walls in place
+        long[] words = maze.words();
+        int tileRows = (rows + TILE_CELLS) / (TILE_CELLS + 1);
+        int tileColumns = (columns + TILE_CELLS) / (TILE_CELLS + 1);
+        SplittableRandom random = new SplittableRandom(seed);
+        SplittableRandom[] tileRandoms = new SplittableRandom[tileRows * tileColumns];
+        for (int i = 0; i < tileRandoms.length; i++) {
+            tileRandoms[i] = random.split();
+        }
+
+        // Carve every tile on its own words
+        long[][] tiles = new long[tileRandoms.length][];
+        pool.submit(() -> IntStream.range(0, tiles.length).parallel().forEach(i -> {
+            int height = tileSize(rows, i / tileColumns);
+            int width = tileSize(columns, i % tileColumns);
+            long[] tile = new long[(int) (((long) height * width + 63) >>> 6)];
+            Arrays.fill(tile, -1L);
+            MyMazeGenerator.carve(tile, height, width, tileRandoms[i]);
+            tiles[i] = tile;
+        })).join();
+
+        // Copy the tiles in, a row of tiles per task. The tiles of a row share words, two rows of tiles don't
+        // once a maze row is 64 cells wide, as the wall row between them is a whole word wide
+        if (columns >= 64) {
+            pool.submit(() -> IntStream.range(0, tileRows).parallel()
+                    .forEach(tileRow -> copyTileRow(words, rows, columns, tiles, tileRow, tileColumns))).join();
+        } else {
+            for (int tileRow = 0; tileRow < tileRows; tileRow++) {
+                copyTileRow(words, rows, columns, tiles, tileRow, tileColumns);
+            }
+        }
+
+        stitch(maze, tileRows, tileColumns, random);
+        maze.setGoal(random);
+        return maze;
+    }
+
+    // The cells of the tile at the given index along a side of the maze, the last tile takes what is left
+    private static int tileSize(int cells, int index) {
+        return Math.min(TILE_CELLS, cells - index * (TILE_CELLS + 1));
+    }
+
+    private static void copyTileRow(long[] words, int rows, int columns, long[][] tiles, int tileRow, int tileColumns) {
+        int firstRow = tileRow * (TILE_CELLS + 1);
+        int height = tileSize(rows, tileRow);
+        for (int tileColumn = 0; tileColumn < tileColumns; tileColumn++) {
+            long[] tile = tiles[tileRow * tileColumns + tileColumn];
+            int firstColumn = tileColumn * (TILE_CELLS + 1);
+            int width = tileSize(columns, tileColumn);
+            for (int row = 0; row < height; row++) {
+                copyRow(tile, (long) row * width, words, (long) (firstRow + row) * columns + firstColumn, width);
+            }
+        }
+    }
+
+    // Opens in the maze words the cells open in the tile words, count cells from the given bit indexes
+    private static void copyRow(long[] tile, long from, long[] words, long to, int count) {
+        for (int done = 0; done < count; done += 64) {
+            int n = Math.min(64, count - done);
+            long open = ~bits(tile, from + done, n);
+            if (n < 64) {
+                open &= (1L << n) - 1;
+            }
+            int index = (int) ((to + done) >>> 6);
+            int shift = (int) ((to + done) & 63);
+            words[index] &= ~(open << shift);
+            if (shift + n > 64) {
+                words[index + 1] &= ~(open >>> (64 - shift));
+            }
+        }
+    }
+
+    // The n (up to 64) bits from the given bit index, in the low bits
+    private static long bits(long[] words, long from, int n) {
+        int index = (int) (from >>> 6);
+        int shift = (int) (from & 63);
+        long value = words[index] >>> shift;
+        if (shift + n > 64) {
+            value |= words[index + 1] << (64 - shift);
+        }
+        return value;
+    }
+
+    /**
+     * Connects the tiles along a random spanning tree of the tile grid, grown depth first, by opening one wall
+     * cell between the two tiles of every tree edge, next to a random room of their common side
+     */
+    private static void stitch(Maze maze, int tileRows, int tileColumns, SplittableRandom random) {
+        boolean[] joined = new boolean[tileRows * tileColumns];
+        int[] stack = new int[joined.length];
+        int size = 0;
+        joined[0] = true;
+        stack[size++] = 0;
+        int[] candidates = new int[4];
+        while (size > 0) {
+            int tile = stack[size - 1];
+            int tileRow = tile / tileColumns;
+            int tileColumn = tile % tileColumns;
+            int count = 0;
+            if (tileRow > 0 && !joined[tile - tileColumns]) candidates[count++] = tile - tileColumns;
+            if (tileRow < tileRows - 1 && !joined[tile + tileColumns]) candidates[count++] = tile + tileColumns;
+            if (tileColumn > 0 && !joined[tile - 1]) candidates[count++] = tile - 1;
+            if (tileColumn < tileColumns - 1 && !joined[tile + 1]) candidates[count++] = tile + 1;
+            if (count == 0) {
+                size--; // Every neighbouring tile is joined, backtrack
+                continue;
+            }
+            int next = candidates[random.nextInt(count)];
+            int first = Math.min(tile, next);
+            int firstRow = first / tileColumns;
+            int firstColumn = first % tileColumns;
+            if (next / tileColumns != tileRow) {
+                // The wall row below the upper tile, at a room column of the tile column
+                int rooms = (tileSize(maze.getColumns(), firstColumn) + 1) / 2;
+                maze.setCell((firstRow + 1) * (TILE_CELLS + 1) - 1,
+                        firstColumn * (TILE_CELLS + 1) + 2 * random.nextInt(rooms), 0);
+            } else {
+                // The wall column right of the left tile, at a room row of the tile row
+                int rooms = (tileSize(maze.getRows(), firstRow) + 1) / 2;
+                maze.setCell(firstRow * (TILE_CELLS + 1) + 2 * random.nextInt(rooms),
+                        (firstColumn + 1) * (TILE_CELLS + 1) - 1, 0);
+            }
+            joined[next] = true;
+            stack[size++] = next;
+        }
+    }
+}
@@ -11,13 +11,14 @@ public class SimpleMazeGenerator extends AMazeGenerator {
     public SimpleMazeGenerator() {
     }
 
-    public Maze generate(int rows, int columns) {
+    public Maze generate(int rows, int columns, long seed) {
         if (rows >= 1 && columns >= 1) {
+            Random ran = new Random(seed);
             Maze maze = new Maze(rows, columns);
-            maze = this.randomWalls(maze);
+            maze = this.randomWalls(maze, ran);
             maze.setCell(0, 0, 0);
             maze.setCell(rows - 1, columns - 1, 0);
-            maze = this.downRight(maze);
+            maze = this.downRight(maze, ran);
             return maze;
         } else {
             return null;
@@ -30,9 +31,7 @@ public class SimpleMazeGenerator extends AMazeGenerator {
      * setup of the maze.
 
      */
-    private Maze randomWalls(Maze emptyMaze) {
-        Random ran = new Random();
-
+    private Maze randomWalls(Maze emptyMaze, Random ran) {
         for(int i = 0; i < emptyMaze.getRows(); ++i) {
             for(int j = 0; j < emptyMaze.getColumns(); ++j) {
                 double prob = ran.nextDouble();
@@ -47,8 +46,7 @@ public class SimpleMazeGenerator extends AMazeGenerator {
     }
 
     // Creates a guaranteed path from the top-left to the bottom-right of the maze.
-    private Maze downRight(Maze maze) {
-        Random ran = new Random();
+    private Maze downRight(Maze maze, Random ran) {
         int rowIndex = 0;
         int columnIndex = 0;
 
@@ -5,6 +5,10 @@ package algorithms.search;
  */
 public abstract class ASearchingAlgorithm implements ISearchingAlgorithm {
     private int visitedNodes;
+    private SearchControl searchControl = new SearchControl();
+    private SearchStatistics statistics = SearchStatistics.none();
+    private long solveStartNanos;
+    private long solveStartBytes;
 
     /**
      *
@@ -22,4 +26,68 @@ public abstract class ASearchingAlgorithm implements ISearchingAlgorithm {
     public void setVisitedNodes(int visitedNodes) {
         this.visitedNodes = visitedNodes;
     }
+
+    /**
+     * set the control the next solves report their progress to and stop at
+     * @param searchControl the control
+     */
+    @Override
+    public void setSearchControl(SearchControl searchControl) {
+        this.searchControl = searchControl;
+    }
+
+    /**
+     *
+     * @return the control solves report to
+     */
+    @Override
+    public SearchControl getSearchControl() {
+        return searchControl;
+    }
+
+    /**
+     *
+     * @return what the last solve cost, no solves at all before the first one finished
+     */
+    @Override
+    public SearchStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * start measuring a solve, before it does any work
+     */
+    protected void startSolve() {
+        solveStartBytes = SearchStatistics.allocatedBytes();
+        solveStartNanos = System.nanoTime();
+    }
+
+    /**
+     * finish measuring a solve and keep its statistics, the expanded nodes are also the visited nodes
+     * @param expanded how many nodes were expanded
+     * @param generated how many successors the expansions produced
+     * @param peakOpen the largest the open list grew
+     * @param peakVisited the largest the visited set grew
+     */
+    protected void finishSolve(long expanded, long generated, long peakOpen, long peakVisited) {
+        long elapsed = System.nanoTime() - solveStartNanos;
+        long bytes = SearchStatistics.allocatedBytes();
+        this.setVisitedNodes((int) expanded);
+        this.statistics = new SearchStatistics(expanded, generated, peakOpen, peakVisited,
+                bytes < 0 || solveStartBytes < 0 ? -1 : bytes - solveStartBytes, elapsed);
+    }
+
+    /**
+     * finish a solve that was handed to another algorithm, keeping that algorithm's statistics
+     * @param delegate the algorithm that solved it
+     */
+    protected void finishSolve(ISearchingAlgorithm delegate) {
+        this.setVisitedNodes(delegate.getNumberOfNodesEvaluated());
+        this.statistics = delegate.getStatistics();
+    }
+
+    // finish a solve that ran on a grid search engine
+    void finishSolve(GridSearchEngine engine) {
+        finishSolve(engine.getExpanded(), engine.getGenerated(), engine.getPeakOpen(), engine.getPeakVisited());
+    }
 }
@@ -0,0 +1,84 @@
+package algorithms.search;
+
+import java.util.*;
+
+/**
+ * solves searchable problem with A* - finds the cheapest path
+ */
+public class AStarSearch extends ASearchingAlgorithm {
+    /**
+     * solve searchable problem with A*.
+     * a SearchableMaze is searched with the octile distance to the goal as heuristic, any other searchable
+     * has no heuristic to offer and is searched by cost alone (uniform cost search)
+     * @param searchable the searchable problem to solve
+     * @return the solution path, every state carries its cost from the start
+     */
+    @Override
+    public Solution solve(ISearchable searchable) {
+        if(searchable == null || searchable.getStartState() == null)
+            return null;
+        startSolve();
+        GridSearchEngine engine = GridSearchEngine.forSearchable(searchable, getSearchControl());
+        if (engine != null) {
+            Solution sol = engine.solution(engine.aStar(engine.startCell(), engine.goalCell()), true);
+            this.finishSolve(engine);
+            return sol;
+        }
+
+        Solution sol = new Solution();
+        AState start = searchable.getStartState();
+        String goal = searchable.getGoalState().toString();
+        PriorityQueue<AState> open = new PriorityQueue<AState>(Comparator.comparingInt(AState::getCost));
+        HashMap<String, Integer> bestCost = new HashMap<>();
+        HashSet<String> closed = new HashSet<>();
+        ArrayList<AState> neighbors = new ArrayList<>(); // reused for every expansion
+        start.setCost(0);
+        open.offer(start);
+        bestCost.put(start.toString(), 0);
+        int visitedNodes = 0;
+        long generated = 0;
+        int peakOpen = 0;
+        while (!open.isEmpty()){
+            AState curr = open.poll();
+            // a state can be queued more than once, only its cheapest copy is expanded
+            if(!closed.add(curr.toString()))
+                continue;
+            visitedNodes++;
+            getSearchControl().checkpoint(visitedNodes, open.size());
+            peakOpen = Math.max(peakOpen, open.size());
+            if(curr.toString().equals(goal)){
+                ArrayList<AState> listSol = new ArrayList<>();
+                while (curr != null){
+                    listSol.add(curr);
+                    curr = curr.getPredecessor();
+                }
+                Collections.reverse(listSol);
+                sol.setSolutionPath(listSol);
+                break;
+            }
+            searchable.getAllPossibleStates(curr, neighbors);
+            generated += neighbors.size();
+            for (AState neighbor : neighbors){
+                String key = neighbor.toString();
+                int newCost = curr.getCost() + neighbor.getCost();
+                if(closed.contains(key) || newCost >= bestCost.getOrDefault(key, Integer.MAX_VALUE))
+                    continue;
+                bestCost.put(key, newCost);
+                neighbor.setPredecessor(curr);
+                neighbor.setCost(newCost);
+                open.offer(neighbor);
+            }
+        }
+        this.finishSolve(visitedNodes, generated, peakOpen, bestCost.size());
+        return sol;
+    }
+
+    /**
+     * get algorithm name
+     * @return algorithm's name
+     */
+    @Override
+    public String getName() {
+        return "A Star Search";
+    }
+}
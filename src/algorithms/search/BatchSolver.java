@@ -0,0 +1,117 @@
+package algorithms.search;
+
+import algorithms.mazeGenerators.Maze;
+import algorithms.mazeGenerators.Position;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * solves many (start, goal) pairs on one maze.
+ * the maze is read once: every query shares its packed walls, a perfect maze is turned into a TreePathOracle once
+ * and answers its queries without searching, and every other query runs A* (octile heuristic) on a search engine
+ * borrowed from the batch's few copies for each query, so no visited or parent arrays are allocated per query.
+ * the queries are spread over a ForkJoinPool
+ */
+public class BatchSolver {
+    private final Maze maze;
+    private final GridSearchEngine engine;
+    private final TreePathOracle oracle; // null when the maze has loops
+    private final SearchControl control; // null when nothing stops the queries
+
+    /**
+     * constructor, prepares the maze for queries
+     * @param maze the maze
+     */
+    public BatchSolver(Maze maze) {
+        this(maze, null);
+    }
+
+    /**
+     * constructor, prepares the maze for queries
+     * @param maze the maze
+     * @param control the control the preparation and the queries report to and stop at, or null. once it says
+     *                stop, the queries still running and all those not started yet are answered with a timed out
+     *                solution
+     */
+    public BatchSolver(Maze maze, SearchControl control) {
+        if ((long) maze.getRows() * maze.getColumns() > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("maze is too large to index");
+        this.maze = maze;
+        this.engine = new GridSearchEngine(maze);
+        this.control = control;
+        TreePathOracle oracle;
+        try {
+            oracle = TreePathOracle.forMaze(maze, control);
+        } catch (SearchCancelledException e) {
+            oracle = null; // every query will answer timed out
+        }
+        this.oracle = oracle;
+    }
+
+    /**
+     * solve every pair on the common ForkJoinPool
+     * @param starts the start position of every query
+     * @param goals the goal position of every query, goals.get(i) belongs to starts.get(i)
+     * @return the cheapest path of every query in the same order, empty where the goal can't be reached.
+     * every state carries the cost of its last move, like BreadthFirstSearch's solutions
+     */
+    public Solution[] solveAll(List<Position> starts, List<Position> goals) {
+        return solveAll(starts, goals, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * solve every pair
+     * @param starts the start position of every query
+     * @param goals the goal position of every query, goals.get(i) belongs to starts.get(i)
+     * @param pool the pool to run the queries on
+     * @return the cheapest path of every query in the same order, empty where the goal can't be reached,
+     * timed out where the control stopped the query
+     */
+    public Solution[] solveAll(List<Position> starts, List<Position> goals, ForkJoinPool pool) {
+        if (starts.size() != goals.size())
+            throw new IllegalArgumentException("every start needs a goal");
+        Solution[] solutions = new Solution[starts.size()];
+        // Engines are borrowed for one query and given back, at most one per thread of the pool is ever made,
+        // and all of them are dropped with the batch
+        ConcurrentLinkedQueue<GridSearchEngine> engines = new ConcurrentLinkedQueue<>();
+        pool.submit(() -> IntStream.range(0, solutions.length).parallel().forEach(i -> {
+            GridSearchEngine searchEngine = engines.poll();
+            if (searchEngine == null)
+                searchEngine = engine.copy(control);
+            try {
+                solutions[i] = solve(searchEngine, starts.get(i), goals.get(i));
+            } catch (SearchCancelledException e) {
+                solutions[i] = timedOut();
+            } finally {
+                engines.offer(searchEngine);
+            }
+        })).join();
+        return solutions;
+    }
+
+    private Solution solve(GridSearchEngine searchEngine, Position start, Position goal) {
+        if (control != null && (control.isCancelled() || control.isTimedOut()))
+            return timedOut(); // short queries never reach a checkpoint of the engine
+        if (!inMaze(start) || !inMaze(goal))
+            return new Solution();
+        if (oracle != null && oracle.treeDistance(start, goal) >= 0)
+            return oracle.solve(start, goal);
+        int startCell = searchEngine.cell(start.getRowIndex(), start.getColumnIndex());
+        int goalCell = searchEngine.cell(goal.getRowIndex(), goal.getColumnIndex());
+        return searchEngine.solution(searchEngine.aStar(startCell, goalCell), false);
+    }
+
+    private static Solution timedOut() {
+        Solution solution = new Solution();
+        solution.setTimedOut(true);
+        return solution;
+    }
+
+    private boolean inMaze(Position position) {
+        return position != null && position.getRowIndex() >= 0 && position.getRowIndex() < maze.getRows()
+                && position.getColumnIndex() >= 0 && position.getColumnIndex() < maze.getColumns();
+    }
+}
@@ -15,17 +15,29 @@ public class BestFirstSearch extends ASearchingAlgorithm {
     public Solution solve(ISearchable searchable) {
         if(searchable.getStartState() == null)
             return null;
+        startSolve();
+        GridSearchEngine engine = GridSearchEngine.forSearchable(searchable, getSearchControl());
+        if (engine != null) {
+            Solution sol = engine.solution(engine.bestFirst(engine.startCell(), engine.goalCell()), true);
+            this.finishSolve(engine);
+            return sol;
+        }
         PriorityQueue<AState> pq = new PriorityQueue<AState>(AState::compareTo);
         Solution sol = new Solution();
         AState start = searchable.getStartState();
         HashSet<String> visited = new HashSet<>();
         ArrayList<AState> listSol = new ArrayList<>();
+        ArrayList<AState> neighbors = new ArrayList<>(); // reused for every expansion
         pq.offer(start);
         visited.add(start.toString());
         int visitedNodes = 0;
+        long generated = 0;
+        int peakOpen = 0;
         while (!pq.isEmpty()){
             AState curr = pq.poll(); // Get the most promising stat- the state with the lowest cost
             visitedNodes++;
+            getSearchControl().checkpoint(visitedNodes, pq.size());
+            peakOpen = Math.max(peakOpen, pq.size());
 
             //check if it's the goal state
             if(curr.toString().equals(searchable.getGoalState().toString())){
@@ -39,8 +51,10 @@ public class BestFirstSearch extends ASearchingAlgorithm {
             }
 
             //check all state's neighbors
-            for (int i=0; i<searchable.getAllPossibleStates(curr).size(); i++){
-                AState neighbor = searchable.getAllPossibleStates(curr).get(i);
+            searchable.getAllPossibleStates(curr, neighbors);
+            generated += neighbors.size();
+            for (int i=0; i<neighbors.size(); i++){
+                AState neighbor = neighbors.get(i);
                 int newCost = curr.getCost() + neighbor.getCost();
                 //check if the neighbor was seen before
                 if(!visited.contains(neighbor.toString())){
@@ -51,7 +65,7 @@ public class BestFirstSearch extends ASearchingAlgorithm {
                 }
             }
         }
-        this.setVisitedNodes(visitedNodes);
+        this.finishSolve(visitedNodes, generated, peakOpen, visited.size());
         return sol;
     }
     /**
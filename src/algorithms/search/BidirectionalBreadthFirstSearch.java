@@ -0,0 +1,40 @@
+package algorithms.search;
+
+/**
+ * solves searchable problem with Breadth First Search grown from the start and the goal at the same time
+ */
+public class BidirectionalBreadthFirstSearch extends ASearchingAlgorithm {
+    /**
+     * solve searchable problem with bidirectional Breadth First Search.
+     * the goal side walks moves backwards, which is only known to be possible in a SearchableMaze,
+     * so any other searchable is solved with a plain Breadth First Search
+     * @param searchable the searchable problem to solve
+     * @return the solution path, with as few moves as Breadth First Search finds
+     */
+    @Override
+    public Solution solve(ISearchable searchable) {
+        if(searchable == null)
+            return null;
+        startSolve();
+        GridSearchEngine engine = GridSearchEngine.forSearchable(searchable, getSearchControl());
+        if (engine == null) {
+            BreadthFirstSearch breadthFirstSearch = new BreadthFirstSearch();
+            breadthFirstSearch.setSearchControl(getSearchControl());
+            Solution sol = breadthFirstSearch.solve(searchable);
+            this.finishSolve(breadthFirstSearch);
+            return sol;
+        }
+        int[] path = engine.bidirectionalBreadthFirst(engine.startCell(), engine.goalCell());
+        this.finishSolve(engine);
+        return path == null ? new Solution() : engine.solution(path, false);
+    }
+
+    /**
+     * get algorithm name
+     * @return algorithm's name
+     */
+    @Override
+    public String getName() {
+        return "Bidirectional Breadth First Search";
+    }
+}
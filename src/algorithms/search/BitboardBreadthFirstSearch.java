@@ -0,0 +1,269 @@
+package algorithms.search;
+
+import algorithms.mazeGenerators.Maze;
+import algorithms.mazeGenerators.Position;
+
+import java.util.Arrays;
+
+/**
+ * solves searchable problem with a bit-parallel Breadth First Search over a SearchableMaze.
+ * every maze row is held as a run of long words (one bit per column), and a whole level of the search is
+ * moved forward 64 cells at a time with shifts and masks: the straight moves are the frontier shifted one row
+ * or one column, and the diagonal moves are the frontier shifted both ways, kept only where one of the two
+ * cells the diagonal cuts between is open (the same corner rule as SearchableMaze).
+ * only the words next to the frontier are worked on, so a thin frontier in a large maze stays cheap.
+ * instead of a parent per cell the search keeps the level of every reached cell modulo 3, which is enough to
+ * walk back from the goal: a neighbour one level closer to the start is the one whose level is one less mod 3
+ */
+public class BitboardBreadthFirstSearch extends ASearchingAlgorithm {
+    /**
+     * solve searchable problem with bit-parallel Breadth First Search.
+     * any searchable other than a SearchableMaze is solved with Breadth First Search
+     * @param searchable the searchable problem to solve
+     * @return the solution path, with as few moves as Breadth First Search finds
+     */
+    @Override
+    public Solution solve(ISearchable searchable) {
+        if(searchable == null)
+            return null;
+        startSolve();
+        Maze maze = searchable instanceof SearchableMaze ? ((SearchableMaze) searchable).getMaze() : null;
+        if (maze == null || (long) maze.getRows() * maze.getColumns() > Integer.MAX_VALUE) {
+            BreadthFirstSearch breadthFirstSearch = new BreadthFirstSearch();
+            breadthFirstSearch.setSearchControl(getSearchControl());
+            Solution sol = breadthFirstSearch.solve(searchable);
+            this.finishSolve(breadthFirstSearch);
+            return sol;
+        }
+        Bitboard board = new Bitboard(maze);
+        board.control = getSearchControl();
+        int[] path = board.shortestPath(maze.getStartPosition(), maze.getGoalPosition());
+        this.finishSolve(board.reached, board.reached, board.peakFrontier, board.reached); // every reached cell is generated once
+        return path == null ? new Solution() : GridSearchEngine.solution(path, maze.getColumns(), false);
+    }
+
+    /**
+     * check if the goal of a maze can be reached from its start, without building the path
+     * @param maze the maze
+     * @return true if there is a path from the start position to the goal position
+     */
+    public static boolean isReachable(Maze maze) {
+        Bitboard board = new Bitboard(maze);
+        return board.flood(maze.getStartPosition(), maze.getGoalPosition()) >= 0;
+    }
+
+    /**
+     * get algorithm name
+     * @return algorithm's name
+     */
+    @Override
+    public String getName() {
+        return "Bitboard Breadth First Search";
+    }
+
+    /**
+     * the maze as row-aligned bit words, and the levels of a search over it
+     */
+    private static class Bitboard {
+        // SearchableMaze's move order: down, right, up, left, down right, down left, up right, up left
+        private static final int[] ROW_MOVES = {1, 0, -1, 0, 1, 1, -1, -1};
+        private static final int[] COLUMN_MOVES = {0, 1, 0, -1, 1, -1, 1, -1};
+
+        private final int rows;
+        private final int columns;
+        private final int rowWords; // words per row, the bits past the last column are always 0
+        private final long[] open;
+        private final long[] visited;
+        private final long[][] levels = new long[3][]; // levels[d % 3] holds the cells first reached at level d
+        private long[] frontier;
+        private long[] next;
+        private final int[] touched; // the last level each word was worked on, so a word is worked on once per level
+        private int reached;
+        private int peakFrontier;
+        private SearchControl control; // null when nothing stops the search
+
+        Bitboard(Maze maze) {
+            this.rows = maze.getRows();
+            this.columns = maze.getColumns();
+            this.rowWords = (columns + 63) >>> 6;
+            int words = rows * rowWords;
+            this.open = new long[words];
+            this.visited = new long[words];
+            for (int i = 0; i < levels.length; i++)
+                levels[i] = new long[words];
+            this.frontier = new long[words];
+            this.next = new long[words];
+            this.touched = new int[words];
+            long[] walls = maze.toWordArray();
+            long lastWordMask = -1L >>> (rowWords * 64 - columns);
+            for (int row = 0; row < rows; row++) {
+                long first = (long) row * columns;
+                for (int w = 0; w < rowWords; w++)
+                    open[row * rowWords + w] = ~bitsAt(walls, first + ((long) w << 6));
+                open[row * rowWords + rowWords - 1] &= lastWordMask;
+            }
+        }
+
+        /**
+         * @return the path from start to goal as cell ids (row * columns + column), or null if the goal is unreachable
+         */
+        int[] shortestPath(Position start, Position goal) {
+            int goalLevel = flood(start, goal);
+            if (goalLevel < 0)
+                return null;
+            int[] path = new int[goalLevel + 1];
+            int row = goal.getRowIndex();
+            int column = goal.getColumnIndex();
+            path[goalLevel] = row * columns + column;
+            for (int level = goalLevel - 1; level >= 0; level--) {
+                int cell = stepBack(levels[level % 3], row, column);
+                row = cell / columns;
+                column = cell % columns;
+                path[level] = cell;
+            }
+            return path;
+        }
+
+        /**
+         * run the search level by level until the goal is reached or there is nothing left to reach
+         * @return the goal's level (its number of moves from the start), or -1 if it is unreachable
+         */
+        int flood(Position start, Position goal) {
+            int startRow = start.getRowIndex();
+            int startColumn = start.getColumnIndex();
+            int goalWord = goal.getRowIndex() * rowWords + (goal.getColumnIndex() >>> 6);
+            long goalBit = 1L << goal.getColumnIndex();
+            int word = startRow * rowWords + (startColumn >>> 6);
+            long bit = 1L << startColumn;
+            visited[word] |= bit;
+            levels[0][word] |= bit;
+            frontier[word] = bit;
+            reached = 1;
+            int[] frontierWords = new int[64];
+            frontierWords[0] = word;
+            int frontierCount = 1;
+            int frontierCells = 1;
+            int[] nextWords = new int[64];
+            Arrays.fill(touched, -1);
+            for (int level = 0; ; level++) {
+                if ((visited[goalWord] & goalBit) != 0)
+                    return level;
+                if (frontierCount == 0)
+                    return -1;
+                peakFrontier = Math.max(peakFrontier, frontierCells);
+                if (control != null)
+                    control.checkpoint(reached - frontierCells, frontierCells);
+                int reachedBefore = reached;
+                long[] reachedLevel = levels[(level + 1) % 3];
+                int nextCount = 0;
+                for (int i = 0; i < frontierCount; i++) {
+                    int row = frontierWords[i] / rowWords;
+                    int w = frontierWords[i] - row * rowWords;
+                    long bits = frontier[frontierWords[i]];
+                    // a move only leaves the word sideways from its first or last column
+                    int firstWord = (bits & 1) != 0 && w > 0 ? w - 1 : w;
+                    int lastWord = bits < 0 && w < rowWords - 1 ? w + 1 : w;
+                    for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++) {
+                        for (int c = firstWord; c <= lastWord; c++) {
+                            int target = r * rowWords + c;
+                            if (touched[target] == level)
+                                continue;
+                            touched[target] = level;
+                            long cells = step(r, c) & ~visited[target];
+                            if (cells == 0)
+                                continue;
+                            next[target] = cells;
+                            visited[target] |= cells;
+                            reachedLevel[target] |= cells;
+                            reached += Long.bitCount(cells);
+                            if (nextCount == nextWords.length)
+                                nextWords = Arrays.copyOf(nextWords, nextCount << 1);
+                            nextWords[nextCount++] = target;
+                        }
+                    }
+                }
+                for (int i = 0; i < frontierCount; i++)
+                    frontier[frontierWords[i]] = 0;
+                long[] swap = frontier;
+                frontier = next;
+                next = swap;
+                int[] swapWords = frontierWords;
+                frontierWords = nextWords;
+                nextWords = swapWords;
+                frontierCount = nextCount;
+                frontierCells = reached - reachedBefore;
+            }
+        }
+
+        // the open cells of word w of a row that one move can reach from the frontier
+        private long step(int row, int w) {
+            long above = word(frontier, row - 1, w);
+            long below = word(frontier, row + 1, w);
+            long openLeft = shiftRight(open, row, w); // bit x: the cell at x - 1 is open
+            long openRight = shiftLeft(open, row, w); // bit x: the cell at x + 1 is open
+            long openAbove = word(open, row - 1, w);
+            long openBelow = word(open, row + 1, w);
+            long moves = above | below | shiftRight(frontier, row, w) | shiftLeft(frontier, row, w)
+                    | (shiftRight(frontier, row - 1, w) & (openLeft | openAbove))   // down right
+                    | (shiftLeft(frontier, row - 1, w) & (openRight | openAbove))   // down left
+                    | (shiftRight(frontier, row + 1, w) & (openLeft | openBelow))   // up right
+                    | (shiftLeft(frontier, row + 1, w) & (openRight | openBelow));  // up left
+            return moves & open[row * rowWords + w];
+        }
+
+        // the first neighbour of (row, column) in SearchableMaze's order that lies on the given level, as a cell id
+        private int stepBack(long[] level, int row, int column) {
+            boolean down = isOpen(row + 1, column);
+            boolean right = isOpen(row, column + 1);
+            boolean up = isOpen(row - 1, column);
+            boolean left = isOpen(row, column - 1);
+            // a straight move only needs its cell on the level, which may be the walled start, a diagonal one
+            // also needs an open corner cell
+            boolean[] allowed = {true, true, true, true, down || right, down || left, up || right, up || left};
+            for (int i = 0; i < allowed.length; i++) {
+                int r = row + ROW_MOVES[i];
+                int c = column + COLUMN_MOVES[i];
+                // only reached cells are on a level, and they are open but for the start, which may be walled
+                if (allowed[i] && r >= 0 && r < rows && c >= 0 && c < columns
+                        && (level[r * rowWords + (c >>> 6)] & (1L << c)) != 0)
+                    return r * columns + c;
+            }
+            throw new IllegalStateException("no cell one level closer to the start next to " + row + "," + column);
+        }
+
+        private boolean isOpen(int row, int column) {
+            return row >= 0 && row < rows && column >= 0 && column < columns
+                    && (open[row * rowWords + (column >>> 6)] & (1L << column)) != 0;
+        }
+
+        private long word(long[] board, int row, int w) {
+            return row < 0 || row >= rows ? 0 : board[row * rowWords + w];
+        }
+
+        // word w of a row moved one column to the right (bit x holds column x - 1)
+        private long shiftRight(long[] board, int row, int w) {
+            if (row < 0 || row >= rows)
+                return 0;
+            long carry = w > 0 ? board[row * rowWords + w - 1] >>> 63 : 0;
+            return board[row * rowWords + w] << 1 | carry;
+        }
+
+        // word w of a row moved one column to the left (bit x holds column x + 1)
+        private long shiftLeft(long[] board, int row, int w) {
+            if (row < 0 || row >= rows)
+                return 0;
+            long carry = w < rowWords - 1 ? board[row * rowWords + w + 1] << 63 : 0;
+            return board[row * rowWords + w] >>> 1 | carry;
+        }
+
+        // the 64 bits of the maze's packed cells starting at a bit index
+        private static long bitsAt(long[] words, long index) {
+            int word = (int) (index >>> 6);
+            int shift = (int) (index & 63);
+            long bits = words[word] >>> shift;
+            if (shift != 0 && word + 1 < words.length)
+                bits |= words[word + 1] << (64 - shift);
+            return bits;
+        }
+    }
+}
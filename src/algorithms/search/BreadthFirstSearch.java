@@ -14,17 +14,29 @@ public class BreadthFirstSearch  extends ASearchingAlgorithm {
     public Solution solve(ISearchable searchable) {
         if(searchable == null)
             return null;
+        startSolve();
+        GridSearchEngine engine = GridSearchEngine.forSearchable(searchable, getSearchControl());
+        if (engine != null) {
+            Solution sol = engine.solution(engine.breadthFirst(engine.startCell(), engine.goalCell()), false);
+            this.finishSolve(engine);
+            return sol;
+        }
         Solution sol = new Solution();
         AState start = searchable.getStartState();
         HashSet<String> visited = new HashSet<>();
         ArrayList<AState> listSol = new ArrayList<>();
+        ArrayList<AState> neighbors = new ArrayList<>(); // reused for every expansion
         Queue<AState> queue = new LinkedList<AState>();
         queue.offer(start);
         visited.add(start.toString());
         int visitedNodes = 0;
+        long generated = 0;
+        int peakOpen = 0;
         while (!queue.isEmpty()){
             AState curr = queue.poll();
             visitedNodes++;
+            getSearchControl().checkpoint(visitedNodes, queue.size());
+            peakOpen = Math.max(peakOpen, queue.size());
             //check if it's the goal state
             if(curr.toString().equals(searchable.getGoalState().toString())){
                 while (curr != null){
@@ -36,8 +48,10 @@ public class BreadthFirstSearch  extends ASearchingAlgorithm {
                 break;
             }
             //check all state's neighbors
-            for (int i=0; i<searchable.getAllPossibleStates(curr).size(); i++){
-                AState neighbor = searchable.getAllPossibleStates(curr).get(i);
+            searchable.getAllPossibleStates(curr, neighbors);
+            generated += neighbors.size();
+            for (int i=0; i<neighbors.size(); i++){
+                AState neighbor = neighbors.get(i);
                 //check if the neighbor was seen before
                 if(!visited.contains(neighbor.toString())){
                     neighbor.setPredecessor(curr);
@@ -46,7 +60,7 @@ public class BreadthFirstSearch  extends ASearchingAlgorithm {
                 }
             }
         }
-        this.setVisitedNodes(visitedNodes);
+        this.finishSolve(visitedNodes, generated, peakOpen, visited.size());
         return sol;
     }
 
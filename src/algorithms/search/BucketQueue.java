@@ -0,0 +1,77 @@
+package algorithms.search;
+
+/**
+ * monotone priority queue of int items (cell ids) with small integer keys (Dial's bucket queue).
+ * a key may only be offered while it is between the key of the last polled item and that key plus maxStep,
+ * which holds for Dijkstra and for A* with a consistent heuristic when moves cost at most maxStep (maxStep / 2
+ * for A*). the buckets are kept in a ring of maxStep + 1 slots, so offer and poll are O(1).
+ * an item is not moved when its key drops: it is offered again, and the caller skips the copies it has closed
+ */
+class BucketQueue {
+    private final IntRingQueue[] buckets;
+    private int currentKey;
+    private int size;
+    private boolean started; // whether currentKey was set since the queue was cleared
+
+    /**
+     * constructor
+     * @param maxStep the largest amount an offered key can exceed the key of the last polled item
+     */
+    BucketQueue(int maxStep) {
+        this.buckets = new IntRingQueue[maxStep + 1];
+        for (int i = 0; i < buckets.length; i++)
+            buckets[i] = new IntRingQueue(64);
+    }
+
+    /**
+     * add an item
+     * @param item the item
+     * @param key the item's key, from the current key up to the current key plus maxStep.
+     * the first key offered after the queue was created or cleared sets the current key
+     */
+    void offer(int item, int key) {
+        if (!started) {
+            currentKey = key;
+            started = true;
+        } else if (key < currentKey || key - currentKey >= buckets.length)
+            throw new IllegalArgumentException("key " + key + " is out of the queue's range from " + currentKey);
+        buckets[key % buckets.length].offer(item);
+        size++;
+    }
+
+    /**
+     * remove an item with the smallest key, the one offered last among those with equal keys
+     * @return the item
+     */
+    int poll() {
+        IntRingQueue bucket = buckets[currentKey % buckets.length];
+        while (bucket.isEmpty()) {
+            currentKey++;
+            bucket = buckets[currentKey % buckets.length];
+        }
+        size--;
+        return bucket.pollLast();
+    }
+
+    /**
+     * @return the key of the last polled item
+     */
+    int currentKey() {
+        return currentKey;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        for (IntRingQueue bucket : buckets)
+            bucket.clear();
+        size = 0;
+        started = false;
+    }
+}
@@ -0,0 +1,157 @@
+package algorithms.search;
+
+import algorithms.mazeGenerators.Maze;
+import algorithms.mazeGenerators.Position;
+
+import java.util.Arrays;
+
+/**
+ * incremental path planning (D* Lite) from a moving player to the goal of a maze.
+ * the search is grown backwards from the goal towards the player, with the octile distance to the player as
+ * heuristic, and is kept between queries. when the player has moved, the cells already settled keep their costs
+ * (the goal and the walls never change), the heuristic offset km grows by the distance the player moved so the
+ * keys already queued stay lower bounds, and the search only goes on until the new position is settled.
+ * a player walking along the maze asks for little more than the cells around the new position.
+ * the planner keeps the state of its last query, so it serves one thread
+ */
+public class DStarLitePlanner {
+    private static final int INFINITE = Integer.MAX_VALUE;
+    private static final int MAX_KM = 1 << 30; // the search starts over before the key offset could overflow
+
+    private final GridSearchEngine engine;
+    private final int rows;
+    private final int columns;
+    private final int goal;
+    private final int[] g; // the cost from every settled cell to the goal, INFINITE until it is settled
+    private final int[] rhs; // the best cost to the goal seen through a settled neighbour
+    private final IndexedMinHeap open;
+    private final int[] neighbours = new int[8];
+    private int start = -1; // the cell of the last query, -1 before the first one
+    private int km;
+    private int expanded;
+
+    /**
+     * constructor, no search runs until the first query
+     * @param maze the maze, its goal position is the goal of every query
+     */
+    public DStarLitePlanner(Maze maze) {
+        if ((long) maze.getRows() * maze.getColumns() > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("maze is too large to index");
+        this.engine = new GridSearchEngine(maze);
+        this.rows = maze.getRows();
+        this.columns = maze.getColumns();
+        this.goal = engine.goalCell();
+        this.g = new int[engine.cellCount()];
+        this.rhs = new int[engine.cellCount()];
+        this.open = new IndexedMinHeap(engine.cellCount());
+    }
+
+    /**
+     * find the cheapest path from a position to the goal, repairing the search of the last query
+     * @param from the player's position
+     * @return the cheapest path from the position to the goal, empty if the goal can't be reached from it.
+     * every state carries the cost of its last move
+     */
+    public Solution solve(Position from) {
+        int row = from.getRowIndex();
+        int column = from.getColumnIndex();
+        expanded = 0;
+        if (row < 0 || row >= rows || column < 0 || column >= columns)
+            return new Solution();
+        int cell = engine.cell(row, column);
+        if (!engine.isOpen(cell) || !engine.isOpen(goal))
+            return new Solution(); // no move starts or ends on a wall
+        if (start < 0 || km >= MAX_KM) {
+            restart(cell);
+        } else if (cell != start) {
+            km += engine.octile(cell, start / columns, start % columns);
+            start = cell;
+        }
+        computeShortestPath();
+        return g[start] == INFINITE ? new Solution() : GridSearchEngine.solution(path(), columns, false);
+    }
+
+    /**
+     * @return how many cells the last query expanded, the first query expands the most
+     */
+    public int getExpanded() {
+        return expanded;
+    }
+
+    // forgets every settled cost and queues the goal, as before the first query
+    private void restart(int cell) {
+        Arrays.fill(g, INFINITE);
+        Arrays.fill(rhs, INFINITE);
+        open.clear();
+        start = cell;
+        km = 0;
+        rhs[goal] = 0;
+        open.offer(goal, key(goal));
+    }
+
+    // expands cells in key order until the start is settled and no queued cell could still make it cheaper.
+    // the walls never change, so a cell is only ever made cheaper (overconsistent) and is settled when expanded
+    private void computeShortestPath() {
+        while (!open.isEmpty() && (open.peekKey() < key(start) || rhs[start] != g[start])) {
+            long oldKey = open.peekKey();
+            int curr = open.poll();
+            long newKey = key(curr);
+            if (oldKey < newKey) {
+                open.offer(curr, newKey); // queued before the player moved, its key has grown since
+                continue;
+            }
+            expanded++;
+            g[curr] = rhs[curr];
+            int count = engine.neighbours(curr, neighbours);
+            for (int i = 0; i < count; i++) {
+                int neighbour = neighbours[i];
+                int cost = g[curr] + stepCost(curr, neighbour);
+                if (neighbour != goal && cost < rhs[neighbour]) {
+                    rhs[neighbour] = cost;
+                    open.offer(neighbour, key(neighbour));
+                }
+            }
+        }
+    }
+
+    // the heap key: the smaller cost estimate through the cell first (k1), then its cost to the goal (k2)
+    private long key(int cell) {
+        int cost = Math.min(g[cell], rhs[cell]);
+        if (cost == INFINITE)
+            return Long.MAX_VALUE;
+        long estimate = (long) cost + engine.octile(cell, start / columns, start % columns) + km;
+        return (estimate << 32) | cost;
+    }
+
+    // walks from the start to the neighbour with the cheapest move plus cost to the goal, until the goal
+    private int[] path() {
+        int[] path = new int[16];
+        int length = 0;
+        path[length++] = start;
+        for (int curr = start; curr != goal; ) {
+            int best = -1;
+            long bestCost = Long.MAX_VALUE;
+            int count = engine.neighbours(curr, neighbours);
+            for (int i = 0; i < count; i++) {
+                int neighbour = neighbours[i];
+                if (g[neighbour] == INFINITE)
+                    continue;
+                long cost = (long) g[neighbour] + stepCost(curr, neighbour);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = neighbour;
+                }
+            }
+            if (length == path.length)
+                path = Arrays.copyOf(path, length << 1);
+            path[length++] = best;
+            curr = best;
+        }
+        return Arrays.copyOf(path, length);
+    }
+
+    private int stepCost(int from, int to) {
+        boolean straight = from / columns == to / columns || from % columns == to % columns;
+        return straight ? GridSearchEngine.STRAIGHT_COST : GridSearchEngine.DIAGONAL_COST;
+    }
+}
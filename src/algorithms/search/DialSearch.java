@@ -0,0 +1,39 @@
+package algorithms.search;
+
+/**
+ * solves searchable problem with Dial's algorithm - Dijkstra on a bucket queue, finds the cheapest path
+ */
+public class DialSearch extends ASearchingAlgorithm {
+    /**
+     * solve searchable problem with Dial's algorithm.
+     * the buckets need the small integer move costs of a SearchableMaze, any other searchable is solved with A*
+     * @param searchable the searchable problem to solve
+     * @return the solution path, every state carries its cost from the start
+     */
+    @Override
+    public Solution solve(ISearchable searchable) {
+        if(searchable == null || searchable.getStartState() == null)
+            return null;
+        startSolve();
+        GridSearchEngine engine = GridSearchEngine.forSearchable(searchable, getSearchControl());
+        if (engine == null) {
+            AStarSearch aStarSearch = new AStarSearch();
+            aStarSearch.setSearchControl(getSearchControl());
+            Solution sol = aStarSearch.solve(searchable);
+            this.finishSolve(aStarSearch);
+            return sol;
+        }
+        Solution sol = engine.solution(engine.dial(engine.startCell(), engine.goalCell()), true);
+        this.finishSolve(engine);
+        return sol;
+    }
+
+    /**
+     * get algorithm name
+     * @return algorithm's name
+     */
+    @Override
+    public String getName() {
+        return "Dial Search";
+    }
+}
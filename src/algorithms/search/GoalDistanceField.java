@@ -0,0 +1,124 @@
+package algorithms.search;
+
+import algorithms.mazeGenerators.Maze;
+import algorithms.mazeGenerators.Position;
+
+import java.io.Serializable;
+
+/**
+ * the number of moves from every cell of a maze to its goal, found by one Breadth First Search grown from the goal.
+ * the goal does not move during a game, so once the field is built the next move or the rest of the path
+ * from any position is read from the table instead of solving the maze again
+ */
+public class GoalDistanceField implements Serializable {
+    // SearchableMaze's move order: down, right, up, left, down right, down left, up right, up left
+    private static final int[] ROW_MOVES = {1, 0, -1, 0, 1, 1, -1, -1};
+    private static final int[] COLUMN_MOVES = {0, 1, 0, -1, 1, -1, 1, -1};
+
+    private final int rows;
+    private final int columns;
+    private final int[] distance; // moves to the goal for every cell (row * columns + column), -1 if it can't reach it
+
+    /**
+     * constructor, searches the whole maze from its goal position
+     * @param maze the maze
+     */
+    public GoalDistanceField(Maze maze) {
+        this(maze, null);
+    }
+
+    /**
+     * constructor, searches the whole maze from its goal position
+     * @param maze the maze
+     * @param control the control the search reports to and stops at, or null
+     * @throws SearchCancelledException if the control is cancelled or past its deadline before the search ends
+     */
+    public GoalDistanceField(Maze maze, SearchControl control) {
+        if ((long) maze.getRows() * maze.getColumns() > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("maze is too large for a distance field");
+        this.rows = maze.getRows();
+        this.columns = maze.getColumns();
+        GridSearchEngine engine = new GridSearchEngine(maze, control);
+        this.distance = engine.distances(engine.goalCell());
+    }
+
+    /**
+     * @param row the row index
+     * @param column the column index
+     * @return the number of moves from the position to the goal, -1 if the goal can't be reached from it.
+     * a wall can be left like every search leaves a walled start, so it is one move further than its nearest neighbour
+     */
+    public int getDistance(int row, int column) {
+        int moves = stored(row, column);
+        if (moves >= 0 || row < 0 || row >= rows || column < 0 || column >= columns)
+            return moves;
+        // an open cell next to one that reaches the goal reaches it too, so only a wall gets past this
+        int nearest = -1;
+        boolean[] allowed = allowedMoves(row, column);
+        for (int i = 0; i < allowed.length; i++) {
+            int next = stored(row + ROW_MOVES[i], column + COLUMN_MOVES[i]);
+            if (allowed[i] && next >= 0 && (nearest < 0 || next < nearest))
+                nearest = next;
+        }
+        return nearest < 0 ? -1 : nearest + 1;
+    }
+
+    // the distance the search found, -1 outside the maze and for walls
+    private int stored(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns)
+            return -1;
+        return distance[row * columns + column];
+    }
+
+    /**
+     * @param row the row index
+     * @param column the column index
+     * @return the position one move closer to the goal, null if the position is the goal or can't reach it
+     */
+    public Position nextStep(int row, int column) {
+        int cell = nextCell(row, column);
+        return cell < 0 ? null : new Position(cell / columns, cell % columns);
+    }
+
+    /**
+     * @param row the row index
+     * @param column the column index
+     * @return the shortest path from the position to the goal, empty if the goal can't be reached from it
+     */
+    public Solution pathToGoal(int row, int column) {
+        int moves = getDistance(row, column);
+        if (moves < 0)
+            return new Solution();
+        int[] path = new int[moves + 1];
+        path[0] = row * columns + column;
+        for (int i = 1; i <= moves; i++)
+            path[i] = nextCell(path[i - 1] / columns, path[i - 1] % columns);
+        return GridSearchEngine.solution(path, columns, false);
+    }
+
+    // the first neighbour in SearchableMaze's order that is one move closer to the goal, as a cell id, or -1
+    private int nextCell(int row, int column) {
+        int moves = getDistance(row, column);
+        if (moves <= 0)
+            return -1;
+        boolean[] allowed = allowedMoves(row, column);
+        for (int i = 0; i < allowed.length; i++) {
+            int r = row + ROW_MOVES[i];
+            int c = column + COLUMN_MOVES[i];
+            if (allowed[i] && stored(r, c) == moves - 1)
+                return r * columns + c;
+        }
+        return -1;
+    }
+
+    // the moves out of a cell that may end on a cell reaching the goal, in SearchableMaze's order.
+    // a cell next to one that reaches the goal is open exactly when it reaches the goal too,
+    // so the corner rule for diagonals can be checked on the distances
+    private boolean[] allowedMoves(int row, int column) {
+        boolean down = stored(row + 1, column) >= 0;
+        boolean right = stored(row, column + 1) >= 0;
+        boolean up = stored(row - 1, column) >= 0;
+        boolean left = stored(row, column - 1) >= 0;
+        return new boolean[]{down, right, up, left, down || right, down || left, up || right, up || left};
+    }
+}
@@ -0,0 +1,686 @@
+package algorithms.search;
+
+import algorithms.mazeGenerators.Maze;
+
+import java.util.Arrays;
+
+/**
+ * allocation-free search over a SearchableMaze.
+ * cells are int ids (row * columns + column), the visited set is a long[] bitset and the search tree is an int[]
+ * parent array, so a search allocates nothing per expanded or generated node.
+ * neighbours are produced in the same order and with the same rules as SearchableMaze.getAllPossibleStates,
+ * so the searches explore the maze exactly like their object-based counterparts.
+ */
+class GridSearchEngine {
+    static final int STRAIGHT_COST = 10;
+    static final int DIAGONAL_COST = 15;
+    private static final int CHECKPOINT_INTERVAL = 1024; // expansions between two reports to the search control
+
+    private final Maze maze;
+    private final int rows;
+    private final int columns;
+    private final long[] walls;
+    private long[] visited; // visited and parent are allocated by the first search
+    private int[] parent;
+    private BucketQueue buckets; // buckets, heap, closed and cost are allocated by the first search that needs them
+    private IndexedMinHeap heap;
+    private long[] closed;
+    private int[] cost;
+    private final int[] neighbours = new int[8];
+    private int straightNeighbours; // the first straightNeighbours entries of neighbours are straight moves
+    private int expanded;
+    private long generated;
+    private int peakOpen;
+    private int visitedCount; // cells visited by either side of a search, the visited set never shrinks
+    private SearchControl control; // null when nothing stops the search
+
+    GridSearchEngine(Maze maze) {
+        this(maze, null);
+    }
+
+    /**
+     * @param maze the maze
+     * @param control the control the engine's searches report to and stop at, or null
+     */
+    GridSearchEngine(Maze maze, SearchControl control) {
+        this(maze, maze.toWordArray(), control);
+    }
+
+    /**
+     * @param maze the maze
+     * @param walls the maze's cells packed like Maze.toWordArray(), changed as the caller needs
+     * @param control the control the engine's searches report to and stop at, or null
+     */
+    GridSearchEngine(Maze maze, long[] walls, SearchControl control) {
+        this.maze = maze;
+        this.rows = maze.getRows();
+        this.columns = maze.getColumns();
+        this.walls = walls;
+        this.control = control;
+    }
+
+    // shares the maze and its walls, which searches never change, but not the arrays a search works in
+    private GridSearchEngine(GridSearchEngine other) {
+        this.maze = other.maze;
+        this.rows = other.rows;
+        this.columns = other.columns;
+        this.walls = other.walls;
+    }
+
+    /**
+     * @param control the control the copy's searches report to and stop at, or null
+     * @return another engine over the same maze, for searching on another thread
+     */
+    GridSearchEngine copy(SearchControl control) {
+        GridSearchEngine copy = new GridSearchEngine(this);
+        copy.control = control;
+        return copy;
+    }
+
+    /**
+     * @param searchable the searchable problem
+     * @param control the control the engine's searches report to and stop at, or null
+     * @return an engine for the searchable's maze, or null if it is not a maze the engine can index with int ids
+     */
+    static GridSearchEngine forSearchable(ISearchable searchable, SearchControl control) {
+        if (!(searchable instanceof SearchableMaze))
+            return null;
+        Maze maze = ((SearchableMaze) searchable).getMaze();
+        if (maze == null || (long) maze.getRows() * maze.getColumns() > Integer.MAX_VALUE)
+            return null;
+        return new GridSearchEngine(maze, control);
+    }
+
+    int startCell() {
+        return cell(maze.getStartPosition().getRowIndex(), maze.getStartPosition().getColumnIndex());
+    }
+
+    int goalCell() {
+        return cell(maze.getGoalPosition().getRowIndex(), maze.getGoalPosition().getColumnIndex());
+    }
+
+    int cell(int row, int column) {
+        return row * columns + column;
+    }
+
+    /**
+     * @return how many cells the last search expanded
+     */
+    int getExpanded() {
+        return expanded;
+    }
+
+    /**
+     * @return how many successors the expansions of the last search produced
+     */
+    long getGenerated() {
+        return generated;
+    }
+
+    /**
+     * @return the largest open list of the last search, measured at its expansions
+     */
+    int getPeakOpen() {
+        return peakOpen;
+    }
+
+    /**
+     * @return how many cells the last search visited
+     */
+    int getPeakVisited() {
+        return visitedCount;
+    }
+
+    /**
+     * breadth first search, marking cells visited when they are queued
+     * @return the goal cell, or -1 if it is unreachable
+     */
+    int breadthFirst(int start, int goal) {
+        reset(start);
+        IntRingQueue queue = new IntRingQueue(1024);
+        queue.offer(start);
+        while (!queue.isEmpty()) {
+            int curr = queue.poll();
+            expanded++;
+            checkpoint(queue.size());
+            if (curr == goal)
+                return goal;
+            int count = neighbours(curr);
+            generated += count;
+            for (int i = 0; i < count; i++) {
+                int neighbour = neighbours[i];
+                if (visit(neighbour, curr))
+                    queue.offer(neighbour);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * breadth first search over every cell reachable from a source, recording how many moves away each one is.
+     * moves are reversible in a maze, so the distances from the goal are also the distances to it
+     * @param source the cell to measure from
+     * @return the number of moves from the source for every cell, -1 for cells that cannot be reached
+     */
+    int[] distances(int source) {
+        reset(source);
+        int[] distance = new int[parent.length];
+        Arrays.fill(distance, -1);
+        if (!isOpen(source))
+            return distance; // no move ends on a wall
+        distance[source] = 0;
+        IntRingQueue queue = new IntRingQueue(1024);
+        queue.offer(source);
+        while (!queue.isEmpty()) {
+            int curr = queue.poll();
+            expanded++;
+            checkpoint(queue.size());
+            int count = neighbours(curr);
+            generated += count;
+            for (int i = 0; i < count; i++) {
+                int neighbour = neighbours[i];
+                if (visit(neighbour, curr)) {
+                    distance[neighbour] = distance[curr] + 1;
+                    queue.offer(neighbour);
+                }
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * depth first search, marking cells visited when they are pushed
+     * @return the goal cell, or -1 if it is unreachable
+     */
+    int depthFirst(int start, int goal) {
+        reset(start);
+        IntRingQueue stack = new IntRingQueue(1024);
+        stack.offer(start);
+        while (!stack.isEmpty()) {
+            int curr = stack.pollLast();
+            expanded++;
+            checkpoint(stack.size());
+            if (curr == goal)
+                return goal;
+            int count = neighbours(curr);
+            generated += count;
+            for (int i = 0; i < count; i++) {
+                int neighbour = neighbours[i];
+                if (visit(neighbour, curr))
+                    stack.offer(neighbour);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * best first search ordered like AState.compareTo (the highest accumulated cost first),
+     * marking cells visited when they are queued
+     * @return the goal cell, or -1 if it is unreachable
+     */
+    int bestFirst(int start, int goal) {
+        reset(start);
+        IndexedMinHeap queue = new IndexedMinHeap(parent.length);
+        int[] cost = new int[parent.length];
+        queue.offer(start, 0);
+        while (!queue.isEmpty()) {
+            int curr = queue.poll();
+            expanded++;
+            checkpoint(queue.size());
+            if (curr == goal)
+                return goal;
+            int count = neighbours(curr);
+            generated += count;
+            for (int i = 0; i < count; i++) {
+                int neighbour = neighbours[i];
+                if (visit(neighbour, curr)) {
+                    cost[neighbour] = cost[curr] + (i < straightNeighbours ? STRAIGHT_COST : DIAGONAL_COST);
+                    queue.offer(neighbour, -cost[neighbour]);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * breadth first search grown from both ends. each round expands one whole level of the smaller frontier;
+     * when a level reaches cells the other side has seen, the shortest of the meetings found on that level is kept
+     * and the two half paths are spliced together. moves are reversible in a maze, so the goal side can use
+     * the same neighbours as the start side
+     * @return the path from start to goal, or null if the goal is unreachable
+     */
+    int[] bidirectionalBreadthFirst(int start, int goal) {
+        reset(start);
+        if (start == goal)
+            return new int[]{start};
+        if (!isOpen(goal))
+            return null; // a move can only end on an open cell
+        long[] fromGoal = new long[visited.length];
+        int[] goalParent = new int[parent.length];
+        int[] depth = new int[parent.length];
+        fromGoal[goal >>> 6] |= 1L << goal;
+        visitedCount++;
+        goalParent[goal] = -1;
+        IntRingQueue startFrontier = new IntRingQueue(1024);
+        IntRingQueue goalFrontier = new IntRingQueue(1024);
+        startFrontier.offer(start);
+        goalFrontier.offer(goal);
+
+        int best = Integer.MAX_VALUE;
+        int meetStartSide = -1;
+        int meetGoalSide = -1;
+        while (best == Integer.MAX_VALUE && !startFrontier.isEmpty() && !goalFrontier.isEmpty()) {
+            boolean forward = startFrontier.size() <= goalFrontier.size();
+            IntRingQueue frontier = forward ? startFrontier : goalFrontier;
+            long[] own = forward ? visited : fromGoal;
+            long[] other = forward ? fromGoal : visited;
+            int[] ownParent = forward ? parent : goalParent;
+            for (int levelSize = frontier.size(); levelSize > 0; levelSize--) {
+                int curr = frontier.poll();
+                expanded++;
+                checkpoint(startFrontier.size() + goalFrontier.size());
+                int count = neighbours(curr);
+                generated += count;
+                for (int i = 0; i < count; i++) {
+                    int neighbour = neighbours[i];
+                    long bit = 1L << neighbour;
+                    if ((other[neighbour >>> 6] & bit) != 0) {
+                        int length = depth[curr] + 1 + depth[neighbour];
+                        if (length < best) {
+                            best = length;
+                            meetStartSide = forward ? curr : neighbour;
+                            meetGoalSide = forward ? neighbour : curr;
+                        }
+                    } else if ((own[neighbour >>> 6] & bit) == 0) {
+                        own[neighbour >>> 6] |= bit;
+                        visitedCount++;
+                        ownParent[neighbour] = curr;
+                        depth[neighbour] = depth[curr] + 1;
+                        frontier.offer(neighbour);
+                    }
+                }
+            }
+        }
+        if (meetStartSide < 0)
+            return null;
+
+        int[] path = new int[best + 1];
+        int i = depth[meetStartSide];
+        for (int curr = meetStartSide; curr >= 0; curr = parent[curr])
+            path[i--] = curr;
+        i = depth[meetStartSide] + 1;
+        for (int curr = meetGoalSide; curr >= 0; curr = goalParent[curr])
+            path[i++] = curr;
+        return path;
+    }
+
+    /**
+     * Dijkstra's algorithm on Dial's bucket queue: moves cost 10 or 15, so the open set is a ring of buckets indexed
+     * by cost and every insert and extract is O(1). a cell is closed when it is expanded; a cheaper path to an open
+     * cell queues it again and the older copy is skipped
+     * @return the goal cell, or -1 if it is unreachable
+     */
+    int dial(int start, int goal) {
+        return costSearch(start, goal, false);
+    }
+
+    /**
+     * A* search with the octile heuristic, on the same bucket queue as dial: the heuristic is consistent, so
+     * the key f = cost + heuristic never drops along a move and grows by at most a move plus the heuristic's drop.
+     * among equal keys the cell queued last is expanded first, which prefers the deeper cells
+     * @return the goal cell, or -1 if it is unreachable
+     */
+    int aStar(int start, int goal) {
+        return costSearch(start, goal, true);
+    }
+
+    private int costSearch(int start, int goal, boolean heuristic) {
+        reset(start);
+        int goalRow = goal / columns;
+        int goalColumn = goal % columns;
+        prepareCostSearch();
+        BucketQueue open = emptyBuckets();
+        long[] closed = this.closed;
+        int[] cost = this.cost;
+        cost[start] = 0;
+        open.offer(start, heuristic ? octile(start, goalRow, goalColumn) : 0);
+        while (!open.isEmpty()) {
+            int curr = open.poll();
+            if ((closed[curr >>> 6] & (1L << curr)) != 0)
+                continue; // a copy queued before a cheaper path was found
+            closed[curr >>> 6] |= 1L << curr;
+            expanded++;
+            checkpoint(open.size());
+            if (curr == goal)
+                return goal;
+            int count = neighbours(curr);
+            generated += count;
+            for (int i = 0; i < count; i++) {
+                int neighbour = neighbours[i];
+                if ((closed[neighbour >>> 6] & (1L << neighbour)) != 0)
+                    continue;
+                int newCost = cost[curr] + (i < straightNeighbours ? STRAIGHT_COST : DIAGONAL_COST);
+                if (visit(neighbour, curr) || newCost < cost[neighbour]) {
+                    parent[neighbour] = curr;
+                    cost[neighbour] = newCost;
+                    open.offer(neighbour, heuristic ? newCost + octile(neighbour, goalRow, goalColumn) : newCost);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * jump point search: A* over jump points only. from every expanded jump point the search follows the pruned
+     * directions (the natural continuation of the move that reached it plus its forced neighbours) and jumps along
+     * each of them until the goal, a cell with a forced neighbour, or - moving diagonally - a cell whose straight
+     * jumps find one. the diagonal steps obey the same corner rule as getAllDiagonalStates (at least one of the two
+     * cells a diagonal cuts between must be open), so the path costs the same as A* on the full grid
+     * @return the path from start to goal with every cell on it, or null if the goal is unreachable
+     */
+    int[] jumpPointSearch(int start, int goal) {
+        reset(start);
+        if (start == goal)
+            return new int[]{start};
+        int goalRow = goal / columns;
+        int goalColumn = goal % columns;
+        prepareCostSearch();
+        IndexedMinHeap open = emptyHeap();
+        long[] closed = this.closed;
+        int[] cost = this.cost;
+        cost[start] = 0;
+        int[] successors = new int[8];
+        open.offer(start, aStarKey(0, octile(start, goalRow, goalColumn)));
+        while (!open.isEmpty()) {
+            int curr = open.poll();
+            closed[curr >>> 6] |= 1L << curr;
+            expanded++;
+            checkpoint(open.size());
+            if (curr == goal)
+                return jumpPath(goal);
+            int count = prunedNeighbours(curr, successors);
+            generated += count;
+            for (int i = 0; i < count; i++) {
+                int row = curr / columns;
+                int column = curr % columns;
+                int dRow = successors[i] / columns - row;
+                int dColumn = successors[i] % columns - column;
+                int jumpPoint = jump(row + dRow, column + dColumn, dRow, dColumn, goal);
+                if (jumpPoint < 0 || (closed[jumpPoint >>> 6] & (1L << jumpPoint)) != 0)
+                    continue;
+                int newCost = cost[curr] + octile(jumpPoint, row, column);
+                if (visit(jumpPoint, curr) || newCost < cost[jumpPoint]) {
+                    parent[jumpPoint] = curr;
+                    cost[jumpPoint] = newCost;
+                    open.offer(jumpPoint, aStarKey(newCost, octile(jumpPoint, goalRow, goalColumn)));
+                }
+            }
+        }
+        return null;
+    }
+
+    // the directions worth following from a jump point, given the direction it was reached from
+    private int prunedNeighbours(int cell, int[] successors) {
+        if (parent[cell] < 0) {
+            int count = neighbours(cell);
+            System.arraycopy(neighbours, 0, successors, 0, count);
+            return count;
+        }
+        int row = cell / columns;
+        int column = cell % columns;
+        int dRow = Integer.signum(row - parent[cell] / columns);
+        int dColumn = Integer.signum(column - parent[cell] % columns);
+        int count = 0;
+        if (dRow != 0 && dColumn != 0) {
+            boolean vertical = walkable(row + dRow, column);
+            boolean horizontal = walkable(row, column + dColumn);
+            if (vertical)
+                successors[count++] = cell + dRow * columns;
+            if (horizontal)
+                successors[count++] = cell + dColumn;
+            if ((vertical || horizontal) && walkable(row + dRow, column + dColumn))
+                successors[count++] = cell + dRow * columns + dColumn;
+            if (vertical && !walkable(row, column - dColumn) && walkable(row + dRow, column - dColumn))
+                successors[count++] = cell + dRow * columns - dColumn;
+            if (horizontal && !walkable(row - dRow, column) && walkable(row - dRow, column + dColumn))
+                successors[count++] = cell - dRow * columns + dColumn;
+        } else if (dColumn != 0) {
+            if (walkable(row, column + dColumn)) {
+                successors[count++] = cell + dColumn;
+                if (!walkable(row + 1, column) && walkable(row + 1, column + dColumn))
+                    successors[count++] = cell + columns + dColumn;
+                if (!walkable(row - 1, column) && walkable(row - 1, column + dColumn))
+                    successors[count++] = cell - columns + dColumn;
+            }
+        } else {
+            if (walkable(row + dRow, column)) {
+                successors[count++] = cell + dRow * columns;
+                if (!walkable(row, column + 1) && walkable(row + dRow, column + 1))
+                    successors[count++] = cell + dRow * columns + 1;
+                if (!walkable(row, column - 1) && walkable(row + dRow, column - 1))
+                    successors[count++] = cell + dRow * columns - 1;
+            }
+        }
+        return count;
+    }
+
+    // walks from (row, column) in one direction, returns the first jump point on the way or -1
+    private int jump(int row, int column, int dRow, int dColumn, int goal) {
+        while (true) {
+            if (!walkable(row, column))
+                return -1;
+            int cell = row * columns + column;
+            if (cell == goal)
+                return cell;
+            if (dRow != 0 && dColumn != 0) {
+                if ((walkable(row + dRow, column - dColumn) && !walkable(row, column - dColumn))
+                        || (walkable(row - dRow, column + dColumn) && !walkable(row - dRow, column)))
+                    return cell;
+                if (jump(row, column + dColumn, 0, dColumn, goal) >= 0 || jump(row + dRow, column, dRow, 0, goal) >= 0)
+                    return cell;
+                if (!walkable(row + dRow, column) && !walkable(row, column + dColumn))
+                    return -1; // the next diagonal step would cut between two walls
+            } else if (dColumn != 0) {
+                if ((walkable(row + 1, column + dColumn) && !walkable(row + 1, column))
+                        || (walkable(row - 1, column + dColumn) && !walkable(row - 1, column)))
+                    return cell;
+            } else {
+                if ((walkable(row + dRow, column + 1) && !walkable(row, column + 1))
+                        || (walkable(row + dRow, column - 1) && !walkable(row, column - 1)))
+                    return cell;
+            }
+            row += dRow;
+            column += dColumn;
+        }
+    }
+
+    // fills in the cells between consecutive jump points, which always lie on one straight or diagonal line
+    private int[] jumpPath(int goal) {
+        int length = 1;
+        for (int curr = goal; parent[curr] >= 0; curr = parent[curr]) {
+            int from = parent[curr];
+            length += Math.max(Math.abs(curr / columns - from / columns), Math.abs(curr % columns - from % columns));
+        }
+        int[] path = new int[length];
+        int i = length - 1;
+        path[i] = goal;
+        for (int curr = goal; parent[curr] >= 0; curr = parent[curr]) {
+            int from = parent[curr];
+            int step = Integer.signum(from / columns - curr / columns) * columns + Integer.signum(from % columns - curr % columns);
+            for (int cell = curr + step; cell != from; cell += step)
+                path[--i] = cell;
+            path[--i] = from;
+        }
+        return path;
+    }
+
+    private boolean walkable(int row, int column) {
+        return row >= 0 && row < rows && column >= 0 && column < columns && isOpen(row * columns + column);
+    }
+
+    /**
+     * octile distance to the goal with the maze's move costs: the cheapest cost over open ground,
+     * so it never overestimates (admissible) and drops by at most a move's cost per move (consistent)
+     */
+    int octile(int cell, int goalRow, int goalColumn) {
+        int dy = Math.abs(cell / columns - goalRow);
+        int dx = Math.abs(cell % columns - goalColumn);
+        return STRAIGHT_COST * Math.max(dx, dy) + (DIAGONAL_COST - STRAIGHT_COST) * Math.min(dx, dy);
+    }
+
+    // orders by f = cost + heuristic, and among equal f prefers the deeper cell (larger cost)
+    private static long aStarKey(int cost, int heuristic) {
+        return ((long) (cost + heuristic) << 32) + (Integer.MAX_VALUE - cost);
+    }
+
+    /**
+     * build the solution path that ends at the given cell by following the parent array
+     * @param goal the cell a search returned
+     * @param accumulatedCost whether states carry the cost from the start (true) or the cost of their last step (false)
+     * @return the solution, empty if goal is -1
+     */
+    Solution solution(int goal, boolean accumulatedCost) {
+        if (goal < 0)
+            return new Solution();
+        int length = 1;
+        for (int curr = goal; parent[curr] >= 0; curr = parent[curr])
+            length++;
+        int[] path = new int[length];
+        for (int curr = goal, i = length - 1; i >= 0; curr = parent[curr], i--)
+            path[i] = curr;
+        return solution(path, accumulatedCost);
+    }
+
+    /**
+     * build the solution for a path of cells
+     * @param path consecutive cells from the start to the goal
+     * @param accumulatedCost whether states carry the cost from the start (true) or the cost of their last step (false)
+     * @return the solution
+     */
+    Solution solution(int[] path, boolean accumulatedCost) {
+        return solution(path, columns, accumulatedCost);
+    }
+
+    /**
+     * build the solution for a path of cells of a maze with the given number of columns
+     * @param path consecutive cells from the start to the goal
+     * @param columns the maze's number of columns
+     * @param accumulatedCost whether states carry the cost from the start (true) or the cost of their last step (false)
+     * @return the solution
+     */
+    static Solution solution(int[] path, int columns, boolean accumulatedCost) {
+        return Solution.ofCells(path, columns, accumulatedCost);
+    }
+
+    /**
+     * fill the neighbour buffer with the cells reachable in one move, in SearchableMaze's order:
+     * down, right, up, left, then the diagonals down right, down left, up right, up left.
+     * a diagonal move needs its target open and at least one of the two cells it cuts between open
+     * @return how many neighbours were written
+     */
+    private int neighbours(int cell) {
+        return neighbours(cell, neighbours);
+    }
+
+    /**
+     * fill a caller supplied buffer with the cells reachable in one move, in the same order as neighbours(cell).
+     * only reads the maze, so several threads can call it at once with their own buffers
+     * @param cell the cell to move from
+     * @param buffer an array of at least 8 cells
+     * @return how many neighbours were written
+     */
+    int neighbours(int cell, int[] buffer) {
+        int row = cell / columns;
+        int column = cell - row * columns;
+        boolean down = row < rows - 1 && isOpen(cell + columns);
+        boolean right = column < columns - 1 && isOpen(cell + 1);
+        boolean up = row > 0 && isOpen(cell - columns);
+        boolean left = column > 0 && isOpen(cell - 1);
+        int count = 0;
+        if (down)
+            buffer[count++] = cell + columns;
+        if (right)
+            buffer[count++] = cell + 1;
+        if (up)
+            buffer[count++] = cell - columns;
+        if (left)
+            buffer[count++] = cell - 1;
+        if (buffer == neighbours)
+            straightNeighbours = count; // only the engine's own buffer tracks this, other callers may be on other threads
+        if (row < rows - 1 && column < columns - 1 && (down || right) && isOpen(cell + columns + 1))
+            buffer[count++] = cell + columns + 1;
+        if (row < rows - 1 && column > 0 && (down || left) && isOpen(cell + columns - 1))
+            buffer[count++] = cell + columns - 1;
+        if (row > 0 && column < columns - 1 && (up || right) && isOpen(cell - columns + 1))
+            buffer[count++] = cell - columns + 1;
+        if (row > 0 && column > 0 && (up || left) && isOpen(cell - columns - 1))
+            buffer[count++] = cell - columns - 1;
+        return count;
+    }
+
+    int cellCount() {
+        return rows * columns;
+    }
+
+    boolean isOpen(int cell) {
+        return (walls[cell >>> 6] & (1L << cell)) == 0;
+    }
+
+    private void reset(int start) {
+        if (visited == null) {
+            visited = new long[walls.length];
+            parent = new int[rows * columns];
+        }
+        Arrays.fill(visited, 0L);
+        expanded = 0;
+        generated = 0;
+        peakOpen = 0;
+        visitedCount = 1;
+        visited[start >>> 6] |= 1L << start;
+        parent[start] = -1;
+    }
+
+    // readies the closed set for a search by cost, a cell's cost is set when it is first visited
+    private void prepareCostSearch() {
+        if (closed == null) {
+            closed = new long[visited.length];
+            cost = new int[parent.length];
+        } else {
+            Arrays.fill(closed, 0L);
+        }
+    }
+
+    private BucketQueue emptyBuckets() {
+        if (buckets == null)
+            buckets = new BucketQueue(2 * DIAGONAL_COST); // wide enough for A*, whose keys can grow by a move plus the heuristic's drop
+        buckets.clear();
+        return buckets;
+    }
+
+    private IndexedMinHeap emptyHeap() {
+        if (heap == null)
+            heap = new IndexedMinHeap(parent.length);
+        heap.clear();
+        return heap;
+    }
+
+    // called once per expansion: keeps the largest frontier seen, and reports to the control every
+    // CHECKPOINT_INTERVAL expansions, throws SearchCancelledException when it says stop
+    private void checkpoint(int frontier) {
+        if (frontier > peakOpen)
+            peakOpen = frontier;
+        if (control != null && expanded % CHECKPOINT_INTERVAL == 0)
+            control.checkpoint(expanded, frontier);
+    }
+
+    // marks a cell visited, returns false if it already was
+    private boolean visit(int cell, int from) {
+        long bit = 1L << cell;
+        if ((visited[cell >>> 6] & bit) != 0)
+            return false;
+        visited[cell >>> 6] |= bit;
+        visitedCount++;
+        parent[cell] = from;
+        return true;
+    }
+}
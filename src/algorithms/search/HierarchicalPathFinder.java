@@ -0,0 +1,402 @@
+package algorithms.search;
+
+import algorithms.mazeGenerators.Maze;
+import algorithms.mazeGenerators.Position;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * hierarchical path finding (HPA*) for answering many path queries on one large maze.
+ * the maze is cut into square clusters. every run of open cells facing each other across a cluster border gets
+ * one entrance (a pair of nodes, one on each side, joined by the straight move between them), and the nodes
+ * of a cluster are joined by the cost of the cheapest path between them that stays inside the cluster.
+ * this abstract graph is built once; a query connects its start and goal to the nodes of their clusters,
+ * runs A* over the abstract graph and refines every abstract edge with a search inside one cluster.
+ * a path is found whenever one exists, but it can cost a little more than the cheapest path, since entrances
+ * are only placed in the middle of each run and diagonal moves across a border are not used between clusters.
+ * queries do not change the finder, so several threads can query one finder at once
+ */
+public class HierarchicalPathFinder {
+    public static final int DEFAULT_CLUSTER_SIZE = 32;
+
+    private final GridSearchEngine engine;
+    private final int rows;
+    private final int columns;
+    private final int clusterSize;
+    private final int clusterColumns;
+    private HashMap<Integer, Integer> nodeOfCell = new HashMap<>(); // only needed while the graph is built
+    private int[] nodeCells = new int[64];
+    private int nodeCount;
+    private int[] clusterNodeStart; // the nodes of cluster i are clusterNodes[clusterNodeStart[i]] .. [clusterNodeStart[i + 1] - 1]
+    private int[] clusterNodes;
+    // abstract edges, collected undirected while building and then listed at both ends
+    private int[] edgeFrom = new int[64];
+    private int[] edgeTo = new int[64];
+    private int[] edgeCost = new int[64];
+    private int edgeCount;
+    private int[] adjacencyStart; // the edges of node i are adjacentNode/adjacentCost[adjacencyStart[i] .. adjacencyStart[i + 1] - 1]
+    private int[] adjacentNode;
+    private int[] adjacentCost;
+
+    /**
+     * constructor, builds the abstract graph with the default cluster size
+     * @param maze the maze
+     */
+    public HierarchicalPathFinder(Maze maze) {
+        this(maze, DEFAULT_CLUSTER_SIZE);
+    }
+
+    /**
+     * constructor, builds the abstract graph
+     * @param maze the maze
+     * @param clusterSize the side of a cluster in cells
+     */
+    public HierarchicalPathFinder(Maze maze, int clusterSize) {
+        this(maze, clusterSize, null);
+    }
+
+    /**
+     * constructor, builds the abstract graph
+     * @param maze the maze
+     * @param clusterSize the side of a cluster in cells
+     * @param control the control the build reports to after every cluster and stops at, or null
+     * @throws SearchCancelledException if the control is cancelled or past its deadline before the graph is built
+     */
+    public HierarchicalPathFinder(Maze maze, int clusterSize, SearchControl control) {
+        if ((long) maze.getRows() * maze.getColumns() > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("maze is too large to index");
+        if (clusterSize < 2)
+            throw new IllegalArgumentException("cluster size must be at least 2");
+        this.engine = new GridSearchEngine(maze);
+        this.rows = maze.getRows();
+        this.columns = maze.getColumns();
+        this.clusterSize = clusterSize;
+        this.clusterColumns = (columns + clusterSize - 1) / clusterSize;
+        int clusterRows = (rows + clusterSize - 1) / clusterSize;
+        for (int clusterRow = 0; clusterRow < clusterRows; clusterRow++) {
+            for (int clusterColumn = 0; clusterColumn < clusterColumns; clusterColumn++) {
+                int top = clusterRow * clusterSize;
+                int left = clusterColumn * clusterSize;
+                int bottom = Math.min(top + clusterSize, rows);
+                int right = Math.min(left + clusterSize, columns);
+                if (right < columns)
+                    addEntrances(top * columns + right - 1, 1, columns, bottom - top);
+                if (bottom < rows)
+                    addEntrances((bottom - 1) * columns + left, columns, 1, right - left);
+            }
+            if (control != null)
+                control.checkpoint((long) (clusterRow + 1) * clusterColumns, 0);
+        }
+        groupNodesByCluster(clusterRows * clusterColumns);
+        for (int cluster = 0; cluster < clusterRows * clusterColumns; cluster++) {
+            linkClusterNodes(cluster);
+            if (control != null)
+                control.checkpoint(cluster + 1, clusterRows * clusterColumns - cluster - 1);
+        }
+        buildAdjacency();
+        nodeOfCell = null;
+    }
+
+    /**
+     * @return how many nodes the abstract graph has
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * find a path between two positions
+     * @param from the position to start from
+     * @param to the position to reach
+     * @return the path, empty if there is none
+     */
+    public Solution solve(Position from, Position to) {
+        int start = cellOf(from);
+        int goal = cellOf(to);
+        if (start < 0 || goal < 0 || !engine.isOpen(goal))
+            return new Solution();
+        if (engine.isOpen(start)) {
+            int[] path = path(start, goal);
+            return path == null ? new Solution() : GridSearchEngine.solution(path, columns, false);
+        }
+        // a walled start can be left like every search leaves it, but it has no entrance of its own, so the path
+        // goes through whichever open neighbour has the cheapest path on
+        int[] neighbours = new int[8];
+        int count = engine.neighbours(start, neighbours);
+        int[] best = null;
+        long bestCost = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            int[] path = path(neighbours[i], goal);
+            if (path == null)
+                continue;
+            long cost = moveCost(start, neighbours[i]) + pathCost(path);
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = path;
+            }
+        }
+        if (best == null)
+            return new Solution();
+        int[] path = new int[best.length + 1];
+        path[0] = start;
+        System.arraycopy(best, 0, path, 1, best.length);
+        return GridSearchEngine.solution(path, columns, false);
+    }
+
+    // the cells of a path between two open cells, null if there is none
+    private int[] path(int start, int goal) {
+        int[] abstractPath = abstractSearch(start, goal);
+        if (abstractPath == null)
+            return null;
+        int[] path = new int[16];
+        int length = 0;
+        path[length++] = start;
+        for (int i = 1; i < abstractPath.length; i++) {
+            int[] segment = refine(abstractPath[i - 1], abstractPath[i]);
+            if (length + segment.length > path.length)
+                path = Arrays.copyOf(path, Math.max(path.length << 1, length + segment.length));
+            System.arraycopy(segment, 0, path, length, segment.length);
+            length += segment.length;
+        }
+        return Arrays.copyOf(path, length);
+    }
+
+    private long pathCost(int[] path) {
+        long cost = 0;
+        for (int i = 1; i < path.length; i++)
+            cost += moveCost(path[i - 1], path[i]);
+        return cost;
+    }
+
+    private int moveCost(int from, int to) {
+        boolean straight = from / columns == to / columns || from % columns == to % columns;
+        return straight ? GridSearchEngine.STRAIGHT_COST : GridSearchEngine.DIAGONAL_COST;
+    }
+
+    // A* over the abstract graph with the start and the goal added as two extra nodes
+    private int[] abstractSearch(int start, int goal) {
+        int startNode = nodeCount;
+        int goalNode = nodeCount + 1;
+        int[] startCost = clusterSearch(start, null);
+        int[] goalCost = clusterSearch(goal, null);
+        int startCluster = clusterOf(start);
+        int goalCluster = clusterOf(goal);
+        int goalRow = goal / columns;
+        int goalColumn = goal % columns;
+
+        int[] cost = new int[nodeCount + 2];
+        int[] parent = new int[nodeCount + 2];
+        boolean[] closed = new boolean[nodeCount + 2];
+        Arrays.fill(cost, Integer.MAX_VALUE);
+        IndexedMinHeap open = new IndexedMinHeap(nodeCount + 2);
+        cost[startNode] = 0;
+        parent[startNode] = -1;
+        open.offer(startNode, engine.octile(start, goalRow, goalColumn));
+        while (!open.isEmpty()) {
+            int curr = open.poll();
+            closed[curr] = true;
+            if (curr == goalNode)
+                break;
+            int currCell = curr == startNode ? start : nodeCells[curr];
+            if (curr == startNode) {
+                for (int i = clusterNodeStart[startCluster]; i < clusterNodeStart[startCluster + 1]; i++) {
+                    int node = clusterNodes[i];
+                    relax(open, cost, parent, closed, curr, node, startCost[localIndex(nodeCells[node])], goalRow, goalColumn);
+                }
+                if (startCluster == goalCluster)
+                    relax(open, cost, parent, closed, curr, goalNode, startCost[localIndex(goal)], goalRow, goalColumn);
+                continue;
+            }
+            for (int i = adjacencyStart[curr]; i < adjacencyStart[curr + 1]; i++)
+                relax(open, cost, parent, closed, curr, adjacentNode[i], adjacentCost[i], goalRow, goalColumn);
+            if (clusterOf(currCell) == goalCluster)
+                relax(open, cost, parent, closed, curr, goalNode, goalCost[localIndex(currCell)], goalRow, goalColumn);
+        }
+        if (!closed[goalNode])
+            return null;
+        int length = 0;
+        for (int node = goalNode; node >= 0; node = parent[node])
+            length++;
+        int[] path = new int[length];
+        for (int node = goalNode, i = length - 1; i >= 0; node = parent[node], i--)
+            path[i] = node == startNode ? start : node == goalNode ? goal : nodeCells[node];
+        return path;
+    }
+
+    private void relax(IndexedMinHeap open, int[] cost, int[] parent, boolean[] closed, int from, int to, int edge,
+                       int goalRow, int goalColumn) {
+        if (edge == Integer.MAX_VALUE || closed[to] || cost[from] + edge >= cost[to])
+            return;
+        cost[to] = cost[from] + edge;
+        parent[to] = from;
+        int cell = to == nodeCount + 1 ? goalRow * columns + goalColumn : nodeCells[to]; // the start is never reached again
+        open.offer(to, (long) cost[to] + engine.octile(cell, goalRow, goalColumn));
+    }
+
+    // the cells after from up to and including to, walking inside one cluster or across one border
+    private int[] refine(int from, int to) {
+        if (clusterOf(from) != clusterOf(to))
+            return new int[]{to}; // the straight move of an entrance
+        int[] parent = new int[clusterSize * clusterSize];
+        clusterSearch(from, parent);
+        int length = 0;
+        for (int local = localIndex(to); local != localIndex(from); local = parent[local])
+            length++;
+        int[] segment = new int[length];
+        int top = clusterOf(from) / clusterColumns * clusterSize;
+        int left = clusterOf(from) % clusterColumns * clusterSize;
+        int width = Math.min(left + clusterSize, columns) - left;
+        for (int local = localIndex(to), i = length - 1; i >= 0; local = parent[local], i--)
+            segment[i] = (top + local / width) * columns + left + local % width;
+        return segment;
+    }
+
+    /**
+     * Dijkstra from a cell over the cells of its cluster
+     * @param source the cell to start from
+     * @param parent if not null, filled with the local index of every reached cell's predecessor
+     * @return the cost to every cell of the cluster by local index, Integer.MAX_VALUE where it can't be reached
+     */
+    private int[] clusterSearch(int source, int[] parent) {
+        int cluster = clusterOf(source);
+        int top = cluster / clusterColumns * clusterSize;
+        int left = cluster % clusterColumns * clusterSize;
+        int bottom = Math.min(top + clusterSize, rows);
+        int right = Math.min(left + clusterSize, columns);
+        int width = right - left;
+        int[] cost = new int[clusterSize * clusterSize];
+        Arrays.fill(cost, Integer.MAX_VALUE);
+        IndexedMinHeap open = new IndexedMinHeap(cost.length);
+        int[] neighbours = new int[8];
+        int sourceLocal = localIndex(source);
+        cost[sourceLocal] = 0;
+        open.offer(sourceLocal, 0);
+        while (!open.isEmpty()) {
+            int local = open.poll();
+            int cell = (top + local / width) * columns + left + local % width;
+            int count = engine.neighbours(cell, neighbours);
+            for (int i = 0; i < count; i++) {
+                int row = neighbours[i] / columns;
+                int column = neighbours[i] % columns;
+                if (row < top || row >= bottom || column < left || column >= right)
+                    continue;
+                int neighbourLocal = (row - top) * width + column - left;
+                boolean straight = row == cell / columns || column == cell % columns;
+                int newCost = cost[local] + (straight ? GridSearchEngine.STRAIGHT_COST : GridSearchEngine.DIAGONAL_COST);
+                if (newCost < cost[neighbourLocal]) {
+                    cost[neighbourLocal] = newCost;
+                    if (parent != null)
+                        parent[neighbourLocal] = local;
+                    open.offer(neighbourLocal, newCost);
+                }
+            }
+        }
+        return cost;
+    }
+
+    // one entrance per run of open cell pairs along a border. first is the first cell on the near side of the
+    // border, across is the step to the far side and along the step to the next pair
+    private void addEntrances(int first, int across, int along, int length) {
+        int runStart = -1;
+        for (int i = 0; i <= length; i++) {
+            int cell = first + i * along;
+            boolean pair = i < length && engine.isOpen(cell) && engine.isOpen(cell + across);
+            if (pair && runStart < 0)
+                runStart = i;
+            if (!pair && runStart >= 0) {
+                int middle = first + (runStart + i - 1) / 2 * along;
+                addEdge(nodeOf(middle), nodeOf(middle + across), GridSearchEngine.STRAIGHT_COST);
+                runStart = -1;
+            }
+        }
+    }
+
+    private void groupNodesByCluster(int clusters) {
+        clusterNodeStart = new int[clusters + 1];
+        for (int node = 0; node < nodeCount; node++)
+            clusterNodeStart[clusterOf(nodeCells[node]) + 1]++;
+        for (int cluster = 0; cluster < clusters; cluster++)
+            clusterNodeStart[cluster + 1] += clusterNodeStart[cluster];
+        clusterNodes = new int[nodeCount];
+        int[] next = Arrays.copyOf(clusterNodeStart, clusters);
+        for (int node = 0; node < nodeCount; node++)
+            clusterNodes[next[clusterOf(nodeCells[node])]++] = node;
+    }
+
+    // joins every two nodes of a cluster that can reach each other inside it
+    private void linkClusterNodes(int cluster) {
+        for (int i = clusterNodeStart[cluster]; i < clusterNodeStart[cluster + 1]; i++) {
+            int[] cost = clusterSearch(nodeCells[clusterNodes[i]], null);
+            for (int j = i + 1; j < clusterNodeStart[cluster + 1]; j++) {
+                int other = clusterNodes[j];
+                int otherCost = cost[localIndex(nodeCells[other])];
+                if (otherCost != Integer.MAX_VALUE)
+                    addEdge(clusterNodes[i], other, otherCost);
+            }
+        }
+    }
+
+    private void buildAdjacency() {
+        adjacencyStart = new int[nodeCount + 1];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            adjacencyStart[edgeFrom[edge] + 1]++;
+            adjacencyStart[edgeTo[edge] + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++)
+            adjacencyStart[node + 1] += adjacencyStart[node];
+        adjacentNode = new int[adjacencyStart[nodeCount]];
+        adjacentCost = new int[adjacencyStart[nodeCount]];
+        int[] next = Arrays.copyOf(adjacencyStart, nodeCount);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            adjacentNode[next[edgeFrom[edge]]] = edgeTo[edge];
+            adjacentCost[next[edgeFrom[edge]]++] = edgeCost[edge];
+            adjacentNode[next[edgeTo[edge]]] = edgeFrom[edge];
+            adjacentCost[next[edgeTo[edge]]++] = edgeCost[edge];
+        }
+        edgeFrom = edgeTo = edgeCost = null; // only the adjacency lists are needed from here on
+    }
+
+    private int nodeOf(int cell) {
+        Integer node = nodeOfCell.get(cell);
+        if (node != null)
+            return node;
+        if (nodeCount == nodeCells.length)
+            nodeCells = Arrays.copyOf(nodeCells, nodeCount << 1);
+        nodeCells[nodeCount] = cell;
+        nodeOfCell.put(cell, nodeCount);
+        return nodeCount++;
+    }
+
+    private void addEdge(int from, int to, int cost) {
+        if (edgeCount == edgeFrom.length) {
+            edgeFrom = Arrays.copyOf(edgeFrom, edgeCount << 1);
+            edgeTo = Arrays.copyOf(edgeTo, edgeCount << 1);
+            edgeCost = Arrays.copyOf(edgeCost, edgeCount << 1);
+        }
+        edgeFrom[edgeCount] = from;
+        edgeTo[edgeCount] = to;
+        edgeCost[edgeCount++] = cost;
+    }
+
+    private int clusterOf(int cell) {
+        return cell / columns / clusterSize * clusterColumns + cell % columns / clusterSize;
+    }
+
+    // the index of a cell inside its cluster, row by row
+    private int localIndex(int cell) {
+        int row = cell / columns;
+        int column = cell % columns;
+        int left = column / clusterSize * clusterSize;
+        int width = Math.min(left + clusterSize, columns) - left;
+        return (row % clusterSize) * width + column - left;
+    }
+
+    private int cellOf(Position position) {
+        int row = position.getRowIndex();
+        int column = position.getColumnIndex();
+        if (row < 0 || row >= rows || column < 0 || column >= columns)
+            return -1;
+        return row * columns + column;
+    }
+}
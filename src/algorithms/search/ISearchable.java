@@ -1,6 +1,7 @@
 package algorithms.search;
 
 import java.util.ArrayList;
+import java.util.List;
 
 public interface ISearchable {
     /**
@@ -21,4 +22,15 @@ public interface ISearchable {
      * @return all possible moves from current state
      */
     ArrayList<AState> getAllPossibleStates(AState currA);
+
+    /**
+     * fill a caller supplied list with all possible moves from current state, so a search can reuse
+     * one list for every expansion instead of getting a new one each time
+     * @param currA current state to check
+     * @param states the list to clear and fill
+     */
+    default void getAllPossibleStates(AState currA, List<AState> states) {
+        states.clear();
+        states.addAll(getAllPossibleStates(currA));
+    }
 }
@@ -15,5 +15,24 @@ public interface ISearchingAlgorithm {
     int getNumberOfNodesEvaluated();
     String getName();
 
+    /**
+     * set the control the next solves report their progress to and stop at.
+     * once it is cancelled or past its deadline, solve throws SearchCancelledException
+     * @param searchControl the control
+     */
+    void setSearchControl(SearchControl searchControl);
+
+    /**
+     *
+     * @return the control solves report to, one without a deadline unless another was set
+     */
+    SearchControl getSearchControl();
+
+    /**
+     *
+     * @return nodes expanded and generated, peak open list and visited set, bytes allocated and time of the last solve
+     */
+    SearchStatistics getStatistics();
+
 
 }
@@ -0,0 +1,137 @@
+package algorithms.search;
+
+import java.util.Arrays;
+
+/**
+ * binary min-heap of int items (cell ids) ordered by long keys.
+ * every item remembers its slot in the heap, so an item's key can be lowered in place (decrease-key)
+ */
+class IndexedMinHeap {
+    private int[] items;
+    private long[] keys;
+    private final int[] slots; // slot of each item in the heap, -1 when the item is not in it
+    private int size;
+
+    /**
+     * constructor
+     * @param universe number of distinct items, items are 0..universe-1
+     */
+    IndexedMinHeap(int universe) {
+        this.items = new int[16];
+        this.keys = new long[16];
+        this.slots = new int[universe];
+        Arrays.fill(slots, -1);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int item) {
+        return slots[item] >= 0;
+    }
+
+    /**
+     * insert an item, or change its key if it is already in the heap
+     * @param item the item
+     * @param key the item's key
+     */
+    void offer(int item, long key) {
+        int slot = slots[item];
+        if (slot < 0) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size << 1);
+                keys = Arrays.copyOf(keys, size << 1);
+            }
+            slot = size++;
+            place(item, key, slot);
+            siftUp(slot);
+        } else if (key < keys[slot]) {
+            keys[slot] = key;
+            siftUp(slot);
+        } else {
+            keys[slot] = key;
+            siftDown(slot);
+        }
+    }
+
+    /**
+     * @return the key of the smallest item
+     */
+    long peekKey() {
+        return keys[0];
+    }
+
+    /**
+     * remove the smallest item
+     * @return the item with the smallest key
+     */
+    int poll() {
+        int top = items[0];
+        remove(top);
+        return top;
+    }
+
+    /**
+     * remove an item if it is in the heap
+     * @param item the item to remove
+     */
+    void remove(int item) {
+        int slot = slots[item];
+        if (slot < 0)
+            return;
+        slots[item] = -1;
+        size--;
+        if (slot != size) {
+            int moved = items[size];
+            place(moved, keys[size], slot);
+            siftUp(slot);
+            siftDown(slots[moved]);
+        }
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++)
+            slots[items[i]] = -1;
+        size = 0;
+    }
+
+    private void siftUp(int slot) {
+        int item = items[slot];
+        long key = keys[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (keys[parent] <= key)
+                break;
+            place(items[parent], keys[parent], slot);
+            slot = parent;
+        }
+        place(item, key, slot);
+    }
+
+    private void siftDown(int slot) {
+        int item = items[slot];
+        long key = keys[slot];
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child])
+                child++;
+            if (keys[child] >= key)
+                break;
+            place(items[child], keys[child], slot);
+            slot = child;
+        }
+        place(item, key, slot);
+    }
+
+    private void place(int item, long key, int slot) {
+        items[slot] = item;
+        keys[slot] = key;
+        slots[item] = slot;
+    }
+}
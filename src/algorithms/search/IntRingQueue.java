@@ -0,0 +1,71 @@
+package algorithms.search;
+
+/**
+ * growable ring buffer of int values, usable as a FIFO queue (offer/poll) or a LIFO stack (offer/pollLast)
+ */
+class IntRingQueue {
+    private int[] items;
+    private int head;
+    private int size;
+
+    /**
+     * constructor
+     * @param capacity initial capacity, rounded up to a power of two
+     */
+    IntRingQueue(int capacity) {
+        this.items = new int[Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1];
+    }
+
+    /**
+     * add a value at the tail
+     * @param value the value to add
+     */
+    void offer(int value) {
+        if (size == items.length)
+            grow();
+        items[(head + size) & (items.length - 1)] = value;
+        size++;
+    }
+
+    /**
+     * remove the value at the head
+     * @return the oldest value in the queue
+     */
+    int poll() {
+        int value = items[head];
+        head = (head + 1) & (items.length - 1);
+        size--;
+        return value;
+    }
+
+    /**
+     * remove the value at the tail
+     * @return the newest value in the queue
+     */
+    int pollLast() {
+        size--;
+        return items[(head + size) & (items.length - 1)];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private void grow() {
+        int[] bigger = new int[items.length << 1];
+        int firstPart = Math.min(size, items.length - head);
+        System.arraycopy(items, head, bigger, 0, firstPart);
+        System.arraycopy(items, 0, bigger, firstPart, size - firstPart);
+        items = bigger;
+        head = 0;
+    }
+}
@@ -0,0 +1,39 @@
+package algorithms.search;
+
+/**
+ * solves searchable problem with Jump Point Search - A* that skips the symmetric paths of a uniform cost grid
+ */
+public class JumpPointSearch extends ASearchingAlgorithm {
+    /**
+     * solve searchable problem with Jump Point Search.
+     * jump points only exist on the grid of a SearchableMaze, any other searchable is solved with A*
+     * @param searchable the searchable problem to solve
+     * @return the solution path with every cell on it, each state carries its cost from the start
+     */
+    @Override
+    public Solution solve(ISearchable searchable) {
+        if(searchable == null || searchable.getStartState() == null)
+            return null;
+        startSolve();
+        GridSearchEngine engine = GridSearchEngine.forSearchable(searchable, getSearchControl());
+        if (engine == null) {
+            AStarSearch aStarSearch = new AStarSearch();
+            aStarSearch.setSearchControl(getSearchControl());
+            Solution sol = aStarSearch.solve(searchable);
+            this.finishSolve(aStarSearch);
+            return sol;
+        }
+        int[] path = engine.jumpPointSearch(engine.startCell(), engine.goalCell());
+        this.finishSolve(engine);
+        return path == null ? new Solution() : engine.solution(path, true);
+    }
+
+    /**
+     * get algorithm name
+     * @return algorithm's name
+     */
+    @Override
+    public String getName() {
+        return "Jump Point Search";
+    }
+}
@@ -0,0 +1,237 @@
+package algorithms.search;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * solves searchable problem with a level-synchronous Breadth First Search that expands every level of the
+ * frontier across a ForkJoinPool. cells are claimed with an atomic bit in a shared visited bitset, and once a
+ * level is done every new cell picks its parent as the first of its neighbours (in SearchableMaze's order) that
+ * lies on the previous level, so the solution does not depend on which thread claimed a cell first
+ */
+public class ParallelBreadthFirstSearch extends ASearchingAlgorithm {
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int GRAIN = 1024; // frontier cells per task, smaller levels are expanded on the calling thread
+
+    private final ForkJoinPool pool;
+
+    /**
+     * constructor, expands on the common ForkJoinPool
+     */
+    public ParallelBreadthFirstSearch() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * constructor
+     * @param pool the pool to expand levels on
+     */
+    public ParallelBreadthFirstSearch(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * solve searchable problem with parallel Breadth First Search.
+     * only a SearchableMaze can be split across threads, any other searchable is solved with Breadth First Search
+     * @param searchable the searchable problem to solve
+     * @return the solution path, with as few moves as Breadth First Search finds
+     */
+    @Override
+    public Solution solve(ISearchable searchable) {
+        if(searchable == null)
+            return null;
+        startSolve();
+        GridSearchEngine engine = GridSearchEngine.forSearchable(searchable, getSearchControl());
+        if (engine == null) {
+            BreadthFirstSearch breadthFirstSearch = new BreadthFirstSearch();
+            breadthFirstSearch.setSearchControl(getSearchControl());
+            Solution sol = breadthFirstSearch.solve(searchable);
+            this.finishSolve(breadthFirstSearch);
+            return sol;
+        }
+        Level search = new Level(engine);
+        int[] path = search.run(engine.startCell(), engine.goalCell());
+        this.finishSolve(search.expanded, search.generated.get(), search.peakFrontier, search.visitedCount);
+        return path == null ? new Solution() : engine.solution(path, false);
+    }
+
+    /**
+     * get algorithm name
+     * @return algorithm's name
+     */
+    @Override
+    public String getName() {
+        return "Parallel Breadth First Search";
+    }
+
+    /**
+     * the state of one search: visited bitset, depth of every claimed cell (level + 1, 0 means unclaimed)
+     * and the frontier of the level being expanded
+     */
+    private class Level {
+        private final GridSearchEngine engine;
+        private final long[] visited;
+        private final int[] depth;
+        private final int[] parent;
+        private int[] frontier;
+        private int frontierSize;
+        private int[] next;
+        private final AtomicInteger nextSize = new AtomicInteger();
+        private int expanded;
+        private final AtomicLong generated = new AtomicLong();
+        private int peakFrontier;
+        private int visitedCount = 1; // the start
+
+        Level(GridSearchEngine engine) {
+            this.engine = engine;
+            this.visited = new long[(engine.cellCount() + 63) >>> 6];
+            this.depth = new int[engine.cellCount()];
+            this.parent = new int[engine.cellCount()];
+        }
+
+        int[] run(int start, int goal) {
+            claim(start, 1);
+            parent[start] = -1;
+            frontier = new int[]{start};
+            frontierSize = 1;
+            for (int level = 1; frontierSize > 0 && depth[goal] == 0; level++) {
+                expanded += frontierSize;
+                peakFrontier = Math.max(peakFrontier, frontierSize);
+                getSearchControl().checkpoint(expanded, frontierSize);
+                next = new int[(int) Math.min((long) frontierSize * 8, engine.cellCount())];
+                nextSize.set(0);
+                run(new Expand(0, frontierSize, level));
+                // the order of the next level depends on thread timing, but its cells and their parents do not
+                run(new Link(0, nextSize.get(), level));
+                frontier = next;
+                frontierSize = nextSize.get();
+                visitedCount += frontierSize;
+            }
+            if (depth[goal] == 0)
+                return null;
+            int[] path = new int[depth[goal]];
+            for (int curr = goal, i = path.length - 1; i >= 0; curr = parent[curr], i--)
+                path[i] = curr;
+            return path;
+        }
+
+        private void run(RecursiveAction task) {
+            if (task instanceof Range && ((Range) task).size() <= GRAIN)
+                task.invoke(); // not worth a trip to the pool
+            else
+                pool.invoke(task);
+        }
+
+        // sets a cell's visited bit, returns false if another task got there first
+        private boolean claim(int cell, int cellDepth) {
+            int word = cell >>> 6;
+            long bit = 1L << cell;
+            if ((visited[word] & bit) != 0 || ((long) WORDS.getAndBitwiseOr(visited, word, bit) & bit) != 0)
+                return false;
+            depth[cell] = cellDepth;
+            return true;
+        }
+
+        /**
+         * a slice [from, to) of an array, split in halves until it is small enough
+         */
+        private abstract class Range extends RecursiveAction {
+            final int from;
+            final int to;
+            final int level;
+
+            Range(int from, int to, int level) {
+                this.from = from;
+                this.to = to;
+                this.level = level;
+            }
+
+            int size() {
+                return to - from;
+            }
+
+            abstract Range slice(int from, int to);
+
+            abstract void leaf();
+
+            @Override
+            protected void compute() {
+                if (size() <= GRAIN) {
+                    leaf();
+                    return;
+                }
+                int middle = (from + to) >>> 1;
+                invokeAll(slice(from, middle), slice(middle, to));
+            }
+        }
+
+        /**
+         * claims the unvisited neighbours of a slice of the frontier and appends them to the next level
+         */
+        private class Expand extends Range {
+            Expand(int from, int to, int level) {
+                super(from, to, level);
+            }
+
+            @Override
+            Range slice(int from, int to) {
+                return new Expand(from, to, level);
+            }
+
+            @Override
+            void leaf() {
+                int[] neighbours = new int[8];
+                int[] claimed = new int[size() * 8];
+                int count = 0;
+                long generatedHere = 0;
+                for (int i = from; i < to; i++) {
+                    int neighbourCount = engine.neighbours(frontier[i], neighbours);
+                    generatedHere += neighbourCount;
+                    for (int j = 0; j < neighbourCount; j++) {
+                        if (claim(neighbours[j], level + 1))
+                            claimed[count++] = neighbours[j];
+                    }
+                }
+                System.arraycopy(claimed, 0, next, nextSize.getAndAdd(count), count);
+                generated.addAndGet(generatedHere);
+            }
+        }
+
+        /**
+         * gives each cell of a slice of the next level its parent: its first neighbour on the level just expanded
+         */
+        private class Link extends Range {
+            Link(int from, int to, int level) {
+                super(from, to, level);
+            }
+
+            @Override
+            Range slice(int from, int to) {
+                return new Link(from, to, level);
+            }
+
+            @Override
+            void leaf() {
+                int[] neighbours = new int[8];
+                for (int i = from; i < to; i++) {
+                    int cell = next[i];
+                    if (level == 1) {
+                        parent[cell] = frontier[0]; // the start, which neighbours skips when it is walled
+                        continue;
+                    }
+                    int neighbourCount = engine.neighbours(cell, neighbours);
+                    for (int j = 0; j < neighbourCount; j++) {
+                        if (depth[neighbours[j]] == level) {
+                            parent[cell] = neighbours[j];
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package algorithms.search;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * solves searchable problem by racing several algorithms and keeping the first answer.
+ * which algorithm is fastest depends on the maze (Breadth First Search on open mazes, Depth First Search on some
+ * perfect ones, A* on large sparse ones), so every algorithm of the portfolio solves it on its own thread and
+ * the first one to find a path wins; the others are cancelled through their SearchControl.
+ * the threads are virtual threads when the JVM has them (Java 21 and later) and daemon platform threads otherwise.
+ * the name of every winner is counted, to learn which algorithms are worth keeping in the portfolio.
+ * every algorithm of the race holds its own search arrays and keeps a core busy until it is cancelled, so a solve
+ * costs about as many times the CPU and memory of one search as there are algorithms: four for the default
+ * portfolio, three with cheapestOnly. the default portfolio answers with whichever path comes first, which is not
+ * the shortest one when Depth First Search wins
+ */
+public class PortfolioSearch extends ASearchingAlgorithm {
+    private static final ThreadFactory THREADS = threadFactory();
+
+    private final ISearchingAlgorithm[] algorithms;
+    private final HashMap<String, Integer> wins = new HashMap<>();
+    private String winner;
+
+    /**
+     * constructor, races Breadth First Search, Depth First Search, A* and Bitboard Breadth First Search
+     */
+    public PortfolioSearch() {
+        this(false);
+    }
+
+    /**
+     * constructor
+     * @param cheapestOnly true to race only the algorithms that find the cheapest path (A*, Dial, Jump Point Search),
+     *                     so the first answer is the cheapest one, false to take any path
+     */
+    public PortfolioSearch(boolean cheapestOnly) {
+        this(cheapestOnly
+                ? new ISearchingAlgorithm[]{new AStarSearch(), new DialSearch(), new JumpPointSearch()}
+                : new ISearchingAlgorithm[]{new BreadthFirstSearch(), new DepthFirstSearch(), new AStarSearch(), new BitboardBreadthFirstSearch()});
+    }
+
+    /**
+     * constructor
+     * @param algorithms the algorithms to race, each one is only used by this portfolio
+     */
+    public PortfolioSearch(ISearchingAlgorithm... algorithms) {
+        if (algorithms.length == 0)
+            throw new IllegalArgumentException("a portfolio needs at least one algorithm");
+        this.algorithms = algorithms.clone();
+    }
+
+    /**
+     * solve searchable problem with every algorithm of the portfolio at once
+     * @param searchable the searchable problem to solve
+     * @return the first non empty solution found, empty if every algorithm found none
+     */
+    @Override
+    public Solution solve(ISearchable searchable) {
+        if(searchable == null)
+            return null;
+        startSolve();
+        LinkedBlockingQueue<Integer> finished = new LinkedBlockingQueue<>();
+        Solution[] solutions = new Solution[algorithms.length];
+        SearchControl[] controls = new SearchControl[algorithms.length];
+        for (int i = 0; i < algorithms.length; i++) {
+            int index = i;
+            controls[i] = new SearchControl();
+            algorithms[i].setSearchControl(controls[i]);
+            THREADS.newThread(() -> {
+                try {
+                    solutions[index] = algorithms[index].solve(searchable);
+                } catch (RuntimeException e) {
+                    solutions[index] = null; // cancelled, or failed on this searchable
+                } finally {
+                    finished.add(index);
+                }
+            }).start();
+        }
+        int winnerIndex = -1;
+        try {
+            for (int left = algorithms.length; left > 0 && winnerIndex < 0; ) {
+                Integer index = finished.poll(10, TimeUnit.MILLISECONDS);
+                if (index == null) {
+                    getSearchControl().checkpoint(mostExpanded(controls), algorithms.length);
+                    continue;
+                }
+                left--;
+                if (solutions[index] != null && !solutions[index].getSolutionPath().isEmpty())
+                    winnerIndex = index;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (SearchControl control : controls)
+                control.cancel();
+        }
+        if (winnerIndex < 0) {
+            winner = null;
+            finishSolve(mostExpanded(controls), 0, 0, 0);
+            return new Solution();
+        }
+        winner = algorithms[winnerIndex].getName();
+        synchronized (wins) {
+            wins.merge(winner, 1, Integer::sum);
+        }
+        finishSolve(algorithms[winnerIndex]);
+        return solutions[winnerIndex];
+    }
+
+    /**
+     * @return the name of the algorithm that answered the last solve, null if none found a path
+     */
+    public String getWinner() {
+        return winner;
+    }
+
+    /**
+     * @return how many solves every algorithm has won
+     */
+    public Map<String, Integer> getWins() {
+        synchronized (wins) {
+            return new HashMap<>(wins);
+        }
+    }
+
+    /**
+     * get algorithm name
+     * @return algorithm's name
+     */
+    @Override
+    public String getName() {
+        return "Portfolio Search";
+    }
+
+    private static long mostExpanded(SearchControl[] controls) {
+        long most = 0;
+        for (SearchControl control : controls)
+            most = Math.max(most, control.getExpandedNodes());
+        return most;
+    }
+
+    // Thread.ofVirtual().factory() when the JVM has virtual threads, looked up by reflection to build on Java 17
+    private static ThreadFactory threadFactory() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Object builder = ofVirtual.invoke(null);
+            Method factory = ofVirtual.getReturnType().getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return runnable -> {
+                Thread thread = new Thread(runnable, "portfolio-search");
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package algorithms.search;
+
+import algorithms.mazeGenerators.Maze;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * a maze reduced to its junctions, so a search expands a handful of nodes instead of every cell.
+ * the reduction runs in two passes over the moves of SearchableMaze:
+ * 1. filling: a cell other than the start and the goal whose remaining neighbours can all reach each other in
+ *    one move (a dead end, or the corner cell of a turn that a diagonal move cuts) is never inside a shortest
+ *    path, because going straight between its neighbours is shorter. such cells are removed until none is left.
+ * 2. contraction: every run of cells with exactly two neighbours becomes one edge between the junctions
+ *    (or the start and goal) at its ends, weighted with the cost of walking it.
+ * any ISearchingAlgorithm can solve the reduced maze; expand() turns its solution back into every cell of the path.
+ * a search that finds the cheapest path (AStarSearch) finds a cheapest path of the full maze too
+ */
+public class ReducedSearchableMaze implements ISearchable {
+    private final int columns;
+    private final int startCell;
+    private final int goalCell;
+    private final int[] nodeIndex; // the node of every cell, -1 for cells that are not junctions
+    private int[] nodeCells = new int[64]; // the cell of every node
+    private int nodeCount;
+    private int[] edgeStart; // the edges of node i are edges[edgeStart[i]] .. edges[edgeStart[i + 1] - 1]
+    private int[] edges; // edge ids, every edge is listed at both of its ends
+    // edge e runs from edgeFrom[e] to edgeTo[e] through the cells path[pathStart[e]] .. path[pathStart[e + 1] - 1]
+    private int[] edgeFrom = new int[64];
+    private int[] edgeTo = new int[64];
+    private int[] edgeCost = new int[64];
+    private int[] pathStart = new int[65];
+    private int[] path = new int[256];
+    private int edgeCount;
+
+    /**
+     * constructor, reduces the maze
+     * @param maze the maze
+     */
+    public ReducedSearchableMaze(Maze maze) {
+        if ((long) maze.getRows() * maze.getColumns() > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("maze is too large to reduce");
+        this.columns = maze.getColumns();
+        // a walled start or goal is opened, so it is a node and the cells next to it see it as a neighbour
+        long[] walls = maze.toWordArray();
+        GridSearchEngine engine = new GridSearchEngine(maze, walls, null);
+        this.startCell = engine.startCell();
+        this.goalCell = engine.goalCell();
+        walls[startCell >>> 6] &= ~(1L << startCell);
+        walls[goalCell >>> 6] &= ~(1L << goalCell);
+        this.nodeIndex = new int[engine.cellCount()];
+        long[] alive = fill(engine, walls);
+        contract(engine, alive);
+    }
+
+    /**
+     * @return how many nodes (junctions, start and goal) the reduced maze has
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     *
+     * @return start MazeState
+     */
+    @Override
+    public AState getStartState() {
+        return new MazeState(startCell / columns, startCell % columns);
+    }
+
+    /**
+     *
+     * @return goal MazeState
+     */
+    @Override
+    public AState getGoalState() {
+        return new MazeState(goalCell / columns, goalCell % columns);
+    }
+
+    /**
+     *
+     * @param currA current junction
+     * @return the junctions one corridor away, each carrying the cost of its corridor
+     */
+    @Override
+    public ArrayList<AState> getAllPossibleStates(AState currA) {
+        ArrayList<AState> states = new ArrayList<AState>();
+        MazeState curr = (MazeState) currA;
+        int node = nodeIndex[curr.getStateRow() * columns + curr.getStateColumn()];
+        if (node < 0)
+            return states;
+        for (int i = edgeStart[node]; i < edgeStart[node + 1]; i++) {
+            int edge = edges[i];
+            int other = edgeFrom[edge] == node ? edgeTo[edge] : edgeFrom[edge];
+            AState newS = new MazeState(nodeCells[other] / columns, nodeCells[other] % columns);
+            newS.setCost(edgeCost[edge]);
+            states.add(newS);
+        }
+        return states;
+    }
+
+    /**
+     * turn a solution of the reduced maze into a solution of the full maze
+     * @param reduced a solution found on this reduced maze, a path of junctions
+     * @return the same path with every cell of every corridor on it
+     */
+    public Solution expand(Solution reduced) {
+        ArrayList<AState> junctions = reduced.getSolutionPath();
+        if (junctions.isEmpty())
+            return new Solution();
+        int[] cells = new int[16];
+        int length = 0;
+        int from = nodeOf(junctions.get(0));
+        cells[length++] = nodeCells[from];
+        for (int j = 1; j < junctions.size(); j++) {
+            int to = nodeOf(junctions.get(j));
+            int edge = cheapestEdge(from, to);
+            int corridor = pathStart[edge + 1] - pathStart[edge];
+            if (length + corridor + 1 > cells.length)
+                cells = Arrays.copyOf(cells, Math.max(cells.length << 1, length + corridor + 1));
+            for (int k = 0; k < corridor; k++)
+                cells[length++] = edgeFrom[edge] == from ? path[pathStart[edge] + k] : path[pathStart[edge + 1] - 1 - k];
+            cells[length++] = nodeCells[to];
+            from = to;
+        }
+        return GridSearchEngine.solution(Arrays.copyOf(cells, length), columns, false);
+    }
+
+    /**
+     * solve the reduced maze and expand the solution
+     * @param searchingAlgorithm the algorithm to search the junctions with
+     * @return the full solution path
+     */
+    public Solution solve(ISearchingAlgorithm searchingAlgorithm) {
+        return expand(searchingAlgorithm.solve(this));
+    }
+
+    // pass 1: removes every cell whose remaining neighbours are all one move apart, returns the cells left
+    private long[] fill(GridSearchEngine engine, long[] walls) {
+        long[] alive = new long[walls.length];
+        for (int i = 0; i < walls.length; i++)
+            alive[i] = ~walls[i];
+        long[] queued = alive.clone();
+        IntRingQueue queue = new IntRingQueue(1024);
+        for (int cell = 0; cell < nodeIndex.length; cell++)
+            if (isSet(alive, cell))
+                queue.offer(cell);
+        int[] neighbours = new int[8];
+        int[] left = new int[8];
+        while (!queue.isEmpty()) {
+            int cell = queue.poll();
+            queued[cell >>> 6] &= ~(1L << cell);
+            if (cell == startCell || cell == goalCell || !isSet(alive, cell))
+                continue;
+            int count = engine.neighbours(cell, neighbours);
+            int leftCount = 0;
+            for (int i = 0; i < count; i++)
+                if (isSet(alive, neighbours[i]))
+                    left[leftCount++] = neighbours[i];
+            if (!allAdjacent(left, leftCount, walls))
+                continue;
+            alive[cell >>> 6] &= ~(1L << cell);
+            for (int i = 0; i < leftCount; i++) {
+                if (!isSet(queued, left[i])) {
+                    queued[left[i] >>> 6] |= 1L << left[i];
+                    queue.offer(left[i]);
+                }
+            }
+        }
+        return alive;
+    }
+
+    // pass 2: makes the junctions nodes and walks every corridor between them once
+    private void contract(GridSearchEngine engine, long[] alive) {
+        Arrays.fill(nodeIndex, -1);
+        int[] neighbours = new int[8];
+        for (int cell = 0; cell < nodeIndex.length; cell++) {
+            if (isSet(alive, cell) && (cell == startCell || cell == goalCell || aliveNeighbours(engine, cell, alive, neighbours) != 2)) {
+                if (nodeCount == nodeCells.length)
+                    nodeCells = Arrays.copyOf(nodeCells, nodeCount << 1);
+                nodeIndex[cell] = nodeCount;
+                nodeCells[nodeCount++] = cell;
+            }
+        }
+        int[] corridor = new int[16];
+        int[] degree = new int[nodeCount + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            int from = nodeCells[node];
+            int count = aliveNeighbours(engine, from, alive, neighbours);
+            int[] firstSteps = Arrays.copyOf(neighbours, count);
+            for (int first : firstSteps) {
+                int previous = from;
+                int curr = first;
+                int cost = stepCost(previous, curr);
+                int length = 0;
+                while (nodeIndex[curr] < 0) {
+                    if (length == corridor.length)
+                        corridor = Arrays.copyOf(corridor, length << 1);
+                    corridor[length++] = curr;
+                    aliveNeighbours(engine, curr, alive, neighbours);
+                    int next = neighbours[0] == previous ? neighbours[1] : neighbours[0];
+                    cost += stepCost(curr, next);
+                    previous = curr;
+                    curr = next;
+                }
+                int to = nodeIndex[curr];
+                if (to <= node)
+                    continue; // a loop back to the same node is never on a shortest path, and the other end adds the rest
+                addEdge(node, to, cost, corridor, length);
+                degree[node]++;
+                degree[to]++;
+            }
+        }
+        edgeStart = new int[nodeCount + 1];
+        for (int node = 0; node < nodeCount; node++)
+            edgeStart[node + 1] = edgeStart[node] + degree[node];
+        edges = new int[edgeStart[nodeCount]];
+        int[] next = Arrays.copyOf(edgeStart, nodeCount);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            edges[next[edgeFrom[edge]]++] = edge;
+            edges[next[edgeTo[edge]]++] = edge;
+        }
+    }
+
+    private void addEdge(int from, int to, int cost, int[] corridor, int length) {
+        if (edgeCount == edgeFrom.length) {
+            edgeFrom = Arrays.copyOf(edgeFrom, edgeCount << 1);
+            edgeTo = Arrays.copyOf(edgeTo, edgeCount << 1);
+            edgeCost = Arrays.copyOf(edgeCost, edgeCount << 1);
+            pathStart = Arrays.copyOf(pathStart, (edgeCount << 1) + 1);
+        }
+        int offset = pathStart[edgeCount];
+        if (offset + length > path.length)
+            path = Arrays.copyOf(path, Math.max(path.length << 1, offset + length));
+        System.arraycopy(corridor, 0, path, offset, length);
+        edgeFrom[edgeCount] = from;
+        edgeTo[edgeCount] = to;
+        edgeCost[edgeCount] = cost;
+        pathStart[++edgeCount] = offset + length;
+    }
+
+    private int cheapestEdge(int from, int to) {
+        int best = -1;
+        for (int i = edgeStart[from]; i < edgeStart[from + 1]; i++) {
+            int edge = edges[i];
+            boolean joins = (edgeFrom[edge] == from && edgeTo[edge] == to) || (edgeFrom[edge] == to && edgeTo[edge] == from);
+            if (joins && (best < 0 || edgeCost[edge] < edgeCost[best]))
+                best = edge;
+        }
+        if (best < 0)
+            throw new IllegalArgumentException("no corridor joins " + nodeCells[from] + " and " + nodeCells[to]);
+        return best;
+    }
+
+    private int nodeOf(AState state) {
+        MazeState mazeState = (MazeState) state;
+        int node = nodeIndex[mazeState.getStateRow() * columns + mazeState.getStateColumn()];
+        if (node < 0)
+            throw new IllegalArgumentException(state + " is not a junction of the reduced maze");
+        return node;
+    }
+
+    private static int aliveNeighbours(GridSearchEngine engine, int cell, long[] alive, int[] neighbours) {
+        int count = engine.neighbours(cell, neighbours);
+        int leftCount = 0;
+        for (int i = 0; i < count; i++)
+            if (isSet(alive, neighbours[i]))
+                neighbours[leftCount++] = neighbours[i];
+        return leftCount;
+    }
+
+    // whether every two of the cells are one move apart in the original maze
+    private boolean allAdjacent(int[] cells, int count, long[] walls) {
+        for (int i = 0; i < count; i++)
+            for (int j = i + 1; j < count; j++)
+                if (!isMove(cells[i], cells[j], walls))
+                    return false;
+        return true;
+    }
+
+    // whether one move of SearchableMaze leads between two open cells
+    private boolean isMove(int from, int to, long[] walls) {
+        int dRow = to / columns - from / columns;
+        int dColumn = to % columns - from % columns;
+        if (Math.abs(dRow) > 1 || Math.abs(dColumn) > 1)
+            return false;
+        if (dRow == 0 || dColumn == 0)
+            return true;
+        return !isSet(walls, from + dRow * columns) || !isSet(walls, from + dColumn);
+    }
+
+    private int stepCost(int from, int to) {
+        boolean straight = from / columns == to / columns || from % columns == to % columns;
+        return straight ? GridSearchEngine.STRAIGHT_COST : GridSearchEngine.DIAGONAL_COST;
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+}
@@ -0,0 +1,14 @@
+package algorithms.search;
+
+/**
+ * thrown out of a solve when its SearchControl was cancelled or ran out of time
+ */
+public class SearchCancelledException extends RuntimeException {
+    /**
+     * constructor
+     * @param message what stopped the search
+     */
+    public SearchCancelledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,85 @@
+package algorithms.search;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * stops a search from another thread and shows how far it got.
+ * a search calls checkpoint as it expands nodes, which records its progress and throws
+ * SearchCancelledException once the control is cancelled or past its deadline.
+ * the progress can be read from any thread while the search runs
+ */
+public class SearchControl {
+    private final long deadline; // System.nanoTime() value, only meaningful when timed
+    private final boolean timed;
+    private volatile boolean cancelled;
+    private volatile long expandedNodes;
+    private volatile int frontierSize;
+
+    /**
+     * constructor, a control without a deadline that only stops when cancelled
+     */
+    public SearchControl() {
+        this.deadline = 0;
+        this.timed = false;
+    }
+
+    /**
+     * constructor
+     * @param timeout how long the search may run, counted from now
+     * @param unit the unit of timeout
+     */
+    public SearchControl(long timeout, TimeUnit unit) {
+        this.deadline = System.nanoTime() + unit.toNanos(timeout);
+        this.timed = true;
+    }
+
+    /**
+     * stop the search at its next checkpoint
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return true if cancel was called
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return true if the control has a deadline and it has passed
+     */
+    public boolean isTimedOut() {
+        return timed && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * @return how many nodes the search had expanded at its last checkpoint
+     */
+    public long getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * @return how many nodes were waiting to be expanded at the last checkpoint
+     */
+    public int getFrontierSize() {
+        return frontierSize;
+    }
+
+    /**
+     * record the progress of the search and stop it if it should not go on
+     * @param expanded how many nodes the search has expanded so far
+     * @param frontier how many nodes are waiting to be expanded
+     * @throws SearchCancelledException if the control is cancelled or past its deadline
+     */
+    public void checkpoint(long expanded, int frontier) {
+        expandedNodes = expanded;
+        frontierSize = frontier;
+        if (cancelled)
+            throw new SearchCancelledException("search cancelled after " + expanded + " expanded nodes");
+        if (isTimedOut())
+            throw new SearchCancelledException("search timed out after " + expanded + " expanded nodes");
+    }
+}
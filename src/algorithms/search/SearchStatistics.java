@@ -0,0 +1,119 @@
+package algorithms.search;
+
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * what one solve cost, or the sum of several solves (see plus).
+ * the open list and visited set sizes are peaks, so adding up solves keeps the largest of them
+ */
+public class SearchStatistics implements Serializable {
+    private final int solves;
+    private final long nodesExpanded;
+    private final long nodesGenerated;
+    private final long peakOpenSize;
+    private final long peakVisitedSize;
+    private final long bytesAllocated; // -1 when the JVM can't count allocations
+    private final long elapsedNanos;
+
+    /**
+     * constructor, the statistics of one solve
+     * @param nodesExpanded how many nodes were expanded
+     * @param nodesGenerated how many successors the expansions produced
+     * @param peakOpenSize the largest the open list (queue, stack or heap) grew
+     * @param peakVisitedSize the largest the visited set grew
+     * @param bytesAllocated how many bytes the solving thread allocated, -1 if unknown
+     * @param elapsedNanos how long the solve took
+     */
+    public SearchStatistics(long nodesExpanded, long nodesGenerated, long peakOpenSize, long peakVisitedSize,
+                            long bytesAllocated, long elapsedNanos) {
+        this(1, nodesExpanded, nodesGenerated, peakOpenSize, peakVisitedSize, bytesAllocated, elapsedNanos);
+    }
+
+    private SearchStatistics(int solves, long nodesExpanded, long nodesGenerated, long peakOpenSize,
+                             long peakVisitedSize, long bytesAllocated, long elapsedNanos) {
+        this.solves = solves;
+        this.nodesExpanded = nodesExpanded;
+        this.nodesGenerated = nodesGenerated;
+        this.peakOpenSize = peakOpenSize;
+        this.peakVisitedSize = peakVisitedSize;
+        this.bytesAllocated = bytesAllocated;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return statistics of no solves at all
+     */
+    public static SearchStatistics none() {
+        return new SearchStatistics(0, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * add up two sets of statistics
+     * @param other statistics of other solves
+     * @return the counts, bytes and time summed, the peaks the larger of the two
+     */
+    public SearchStatistics plus(SearchStatistics other) {
+        boolean bytesKnown = bytesAllocated >= 0 && other.bytesAllocated >= 0;
+        return new SearchStatistics(solves + other.solves, nodesExpanded + other.nodesExpanded,
+                nodesGenerated + other.nodesGenerated, Math.max(peakOpenSize, other.peakOpenSize),
+                Math.max(peakVisitedSize, other.peakVisitedSize),
+                bytesKnown ? bytesAllocated + other.bytesAllocated : -1, elapsedNanos + other.elapsedNanos);
+    }
+
+    /**
+     * @return how many solves these statistics cover
+     */
+    public int getSolves() {
+        return solves;
+    }
+
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    public long getNodesGenerated() {
+        return nodesGenerated;
+    }
+
+    public long getPeakOpenSize() {
+        return peakOpenSize;
+    }
+
+    public long getPeakVisitedSize() {
+        return peakVisitedSize;
+    }
+
+    /**
+     * @return how many bytes the solving threads allocated, -1 if the JVM can't count allocations.
+     * a search that expands on a pool only counts what its calling thread allocated
+     */
+    public long getBytesAllocated() {
+        return bytesAllocated;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return how many bytes the current thread has allocated since it started, -1 if the JVM can't count them
+     */
+    static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean))
+            return -1;
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        if (!allocations.isThreadAllocatedMemorySupported() || !allocations.isThreadAllocatedMemoryEnabled())
+            return -1;
+        return allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Override
+    public String toString() {
+        return "solves: " + solves + ", expanded: " + nodesExpanded + ", generated: " + nodesGenerated
+                + ", peak open: " + peakOpenSize + ", peak visited: " + peakVisitedSize
+                + ", bytes allocated: " + bytesAllocated + ", elapsed ms: " + elapsedNanos / 1000000;
+    }
+}
@@ -3,6 +3,7 @@ package algorithms.search;
 import algorithms.mazeGenerators.Maze;
 
 import java.util.ArrayList;
+import java.util.List;
 
 public class SearchableMaze implements ISearchable {
     private Maze maze; // Holds the original maze we're adapting
@@ -11,6 +12,14 @@ public class SearchableMaze implements ISearchable {
         this.maze = maze;
     }
 
+    /**
+     *
+     * @return the adapted maze
+     */
+    public Maze getMaze() {
+        return maze;
+    }
+
     /**
      *
      * @return start MazeState
@@ -41,22 +50,29 @@ public class SearchableMaze implements ISearchable {
      * @return array represent All Possible moves from current position
      */
     public ArrayList<AState> getAllPossibleStates(AState currA){
-        ArrayList<AState> states = new ArrayList<AState>();
-        ArrayList<AState> directStates;
-        ArrayList<AState> diagonalStates;
-        directStates = getAllDirectStates(currA); // Direct movements
-        diagonalStates = getAllDiagonalStates(currA);   // Diagonal movements
-        states.addAll(directStates);
-        states.addAll(diagonalStates);
+        ArrayList<AState> states = new ArrayList<AState>(8);
+        getAllPossibleStates(currA, states);
         return states;
     }
+
+    /**
+     * fill the caller's list with all possible moves from current position, direct moves first.
+     * nothing is allocated apart from the neighbour states themselves
+     * @param currA current state to check
+     * @param states the list to clear and fill
+     */
+    @Override
+    public void getAllPossibleStates(AState currA, List<AState> states){
+        states.clear();
+        addAllDirectStates(currA, states); // Direct movements
+        addAllDiagonalStates(currA, states);   // Diagonal movements
+    }
     /**
      *
      * @param currA current state to check
-     * @return array represent All Possible direct moves from current position
+     * @param states list to add All Possible direct moves from current position to
      */
-    private ArrayList<AState> getAllDirectStates(AState currA){
-        ArrayList<AState> states = new ArrayList<AState>();
+    private void addAllDirectStates(AState currA, List<AState> states){
         int currRow = ((MazeState)currA).getStateRow();
         int currCol = ((MazeState)currA).getStateColumn();
         //down
@@ -83,15 +99,13 @@ public class SearchableMaze implements ISearchable {
             newS.setCost(10);
             states.add(newS);
         }
-        return states;
     }
     /**
      *
      * @param currA current state to check
-     * @return array represent All Possible diagonal moves from current position
+     * @param states list to add All Possible diagonal moves from current position to
      */
-    private ArrayList<AState> getAllDiagonalStates(AState currA){
-        ArrayList<AState> states = new ArrayList<AState>();
+    private void addAllDiagonalStates(AState currA, List<AState> states){
         int currRow = ((MazeState)currA).getStateRow();
         int currCol = ((MazeState)currA).getStateColumn();
         //down right
@@ -126,6 +140,5 @@ public class SearchableMaze implements ISearchable {
                 states.add(newS);
             }
         }
-        return states;
     }
 }
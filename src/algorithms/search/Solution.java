@@ -4,10 +4,25 @@ import java.io.Serializable;
 import java.util.ArrayList;
 
 /**
- * Solution
+ * Solution.
+ * a path of maze cells is kept compact: its first cell and 3 bits per move (one of SearchableMaze's 8 moves),
+ * so sending or caching it writes a few bytes per step instead of a chain of states. the MazeStates are built
+ * from it the first time getSolutionPath is called. paths of any other searchable are kept as their states
  */
 public class Solution implements Serializable {
-    private ArrayList<AState> solutionPath;
+    // SearchableMaze's move order: down, right, up, left, down right, down left, up right, up left
+    private static final int[] ROW_MOVES = {1, 0, -1, 0, 1, 1, -1, -1};
+    private static final int[] COLUMN_MOVES = {0, 1, 0, -1, 1, -1, 1, -1};
+    private static final int MOVES_PER_WORD = 21; // 21 moves of 3 bits fill 63 bits of a long
+
+    private ArrayList<AState> solutionPath; // null when the path is kept compact
+    private int startRow;
+    private int startColumn;
+    private long[] moves;
+    private int moveCount;
+    private boolean accumulatedCost; // whether states carry the cost from the start or the cost of their last move
+    private boolean timedOut; // the search was stopped before it finished, the path is empty
+    private transient ArrayList<AState> states; // the compact path as states, once they were asked for
 
     /**
      * constructor
@@ -16,12 +31,38 @@ public class Solution implements Serializable {
         this.solutionPath = new ArrayList<AState>();
     }
 
+    /**
+     * build the compact solution for a path of cells of a maze
+     * @param path consecutive cells (row * columns + column) from the start to the goal, each one move from the last
+     * @param columns the maze's number of columns
+     * @param accumulatedCost whether states carry the cost from the start (true) or the cost of their last move (false)
+     * @return the solution
+     */
+    static Solution ofCells(int[] path, int columns, boolean accumulatedCost) {
+        Solution sol = new Solution();
+        if (path.length == 0)
+            return sol;
+        sol.solutionPath = null;
+        sol.startRow = path[0] / columns;
+        sol.startColumn = path[0] % columns;
+        sol.accumulatedCost = accumulatedCost;
+        sol.moveCount = path.length - 1;
+        sol.moves = new long[(sol.moveCount + MOVES_PER_WORD - 1) / MOVES_PER_WORD];
+        for (int i = 0; i < sol.moveCount; i++) {
+            int move = move(path[i + 1] / columns - path[i] / columns, path[i + 1] % columns - path[i] % columns);
+            sol.moves[i / MOVES_PER_WORD] |= (long) move << (3 * (i % MOVES_PER_WORD));
+        }
+        return sol;
+    }
+
     /**
      * set new solution path according to the given solutionPath
      * @param solutionPath
      */
     public void setSolutionPath(ArrayList<AState> solutionPath) {
         this.solutionPath = solutionPath;
+        this.moves = null;
+        this.states = null;
     }
 
     /**
@@ -29,6 +70,62 @@ public class Solution implements Serializable {
      * @return array contain the solution path
      */
     public ArrayList<AState> getSolutionPath() {
-        return solutionPath;
+        if (solutionPath != null)
+            return solutionPath;
+        if (states == null)
+            states = toStates();
+        return states;
+    }
+
+    /**
+     *
+     * @return how many states the solution path has, without building them
+     */
+    public int getPathLength() {
+        return solutionPath != null ? solutionPath.size() : moveCount + 1;
+    }
+
+    /**
+     * mark the solution as the answer of a search that ran out of time
+     * @param timedOut true if the search was stopped before it finished
+     */
+    public void setTimedOut(boolean timedOut) {
+        this.timedOut = timedOut;
+    }
+
+    /**
+     *
+     * @return true if the search was stopped before it finished, so the empty path does not mean there is no path
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    // the states of the compact path, linked to their predecessors and costed like the searches cost them
+    private ArrayList<AState> toStates() {
+        ArrayList<AState> listSol = new ArrayList<>(moveCount + 1);
+        int row = startRow;
+        int column = startColumn;
+        AState previous = new MazeState(row, column);
+        listSol.add(previous);
+        for (int i = 0; i < moveCount; i++) {
+            int move = (int) (moves[i / MOVES_PER_WORD] >>> (3 * (i % MOVES_PER_WORD))) & 7;
+            row += ROW_MOVES[move];
+            column += COLUMN_MOVES[move];
+            AState state = new MazeState(row, column);
+            int step = move < 4 ? GridSearchEngine.STRAIGHT_COST : GridSearchEngine.DIAGONAL_COST;
+            state.setCost(accumulatedCost ? previous.getCost() + step : step);
+            state.setPredecessor(previous);
+            listSol.add(state);
+            previous = state;
+        }
+        return listSol;
+    }
+
+    private static int move(int dRow, int dColumn) {
+        for (int move = 0; move < ROW_MOVES.length; move++)
+            if (ROW_MOVES[move] == dRow && COLUMN_MOVES[move] == dColumn)
+                return move;
+        throw new IllegalArgumentException("cells " + dRow + ", " + dColumn + " apart are not one move apart");
     }
 }
@@ -0,0 +1,201 @@
+package algorithms.search;
+
+import algorithms.mazeGenerators.Maze;
+import algorithms.mazeGenerators.Position;
+
+import java.util.Arrays;
+
+/**
+ * answers path queries on a perfect maze without searching it.
+ * a maze carved by MyMazeGenerator is a spanning tree of its cells when only straight moves are counted,
+ * so there is exactly one straight-move path between two cells: up from each of them to their lowest common
+ * ancestor. the tree is rooted at the maze's start once, in O(n), and every cell keeps its parent, its depth and
+ * one jump pointer (the skew-binary scheme), which finds the lowest common ancestor in O(log n) with O(n) memory.
+ * diagonal moves only cut the corners of the straight path (the corner cell is on it), so the shortest path is
+ * the tree path with every corner cut that does not overlap the previous cut
+ */
+public class TreePathOracle {
+    private static final int CHECKPOINT_INTERVAL = 1024; // cells rooted between two reports to the search control
+
+    private final int rows;
+    private final int columns;
+    private final int[] parent; // -1 for the root
+    private final int[] depth; // -1 for cells outside the root's tree
+    private final int[] jump; // an ancestor of the cell, used to climb the tree in O(log n) steps
+
+    private TreePathOracle(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.parent = new int[rows * columns];
+        this.depth = new int[rows * columns];
+        this.jump = new int[rows * columns];
+    }
+
+    /**
+     * build the oracle for a maze, if the open cells connected to its start form a tree
+     * @param maze the maze
+     * @return the oracle, or null if the maze has a loop (or is too large to index)
+     */
+    public static TreePathOracle forMaze(Maze maze) {
+        return forMaze(maze, null);
+    }
+
+    /**
+     * build the oracle for a maze, if the open cells connected to its start form a tree
+     * @param maze the maze
+     * @param control the control the build reports to and stops at, or null
+     * @return the oracle, or null if the maze has a loop (or is too large to index)
+     * @throws SearchCancelledException if the control is cancelled or past its deadline before the tree is rooted
+     */
+    public static TreePathOracle forMaze(Maze maze, SearchControl control) {
+        if (maze == null || (long) maze.getRows() * maze.getColumns() > Integer.MAX_VALUE)
+            return null;
+        TreePathOracle oracle = new TreePathOracle(maze.getRows(), maze.getColumns());
+        Position start = maze.getStartPosition();
+        int startCell = start.getRowIndex() * maze.getColumns() + start.getColumnIndex();
+        return oracle.root(maze.toWordArray(), startCell, control) ? oracle : null;
+    }
+
+    /**
+     * @param from a position
+     * @param to a position
+     * @return the number of straight moves between the positions along the tree, -1 if they are not connected
+     */
+    public int treeDistance(Position from, Position to) {
+        int u = cell(from);
+        int v = cell(to);
+        if (u < 0 || v < 0)
+            return -1;
+        return depth[u] + depth[v] - 2 * depth[lowestCommonAncestor(u, v)];
+    }
+
+    /**
+     * @param from a position
+     * @param to a position
+     * @return the shortest path between the positions, empty if they are not connected.
+     * every state carries the cost of its last move, like BreadthFirstSearch's solutions
+     */
+    public Solution solve(Position from, Position to) {
+        return solve(from, to, false);
+    }
+
+    /**
+     * @param from a position
+     * @param to a position
+     * @param accumulatedCost whether states carry the cost from the start (true, like AStarSearch's solutions)
+     *                        or the cost of their last move (false)
+     * @return the shortest path between the positions, empty if they are not connected
+     */
+    public Solution solve(Position from, Position to, boolean accumulatedCost) {
+        int u = cell(from);
+        int v = cell(to);
+        if (u < 0 || v < 0)
+            return new Solution();
+        int ancestor = lowestCommonAncestor(u, v);
+        int[] treePath = new int[depth[u] + depth[v] - 2 * depth[ancestor] + 1];
+        int i = 0;
+        for (int curr = u; curr != ancestor; curr = parent[curr])
+            treePath[i++] = curr;
+        treePath[i] = ancestor;
+        i = treePath.length - 1;
+        for (int curr = v; curr != ancestor; curr = parent[curr])
+            treePath[i--] = curr;
+        return GridSearchEngine.solution(cutCorners(treePath), columns, accumulatedCost);
+    }
+
+    // roots the tree at start with a Breadth First Search over straight moves, returns false on a loop.
+    // walls is the oracle's own copy of the maze's cells
+    private boolean root(long[] walls, int start, SearchControl control) {
+        Arrays.fill(depth, -1);
+        walls[start >>> 6] &= ~(1L << start); // the searches leave a walled start too, so the tree is rooted there all the same
+        IntRingQueue queue = new IntRingQueue(1024);
+        depth[start] = 0;
+        parent[start] = -1;
+        jump[start] = start;
+        queue.offer(start);
+        int[] neighbours = new int[4];
+        long expanded = 0;
+        while (!queue.isEmpty()) {
+            int curr = queue.poll();
+            if (control != null && ++expanded % CHECKPOINT_INTERVAL == 0)
+                control.checkpoint(expanded, queue.size());
+            int row = curr / columns;
+            int column = curr - row * columns;
+            int count = 0;
+            if (row < rows - 1)
+                neighbours[count++] = curr + columns;
+            if (column < columns - 1)
+                neighbours[count++] = curr + 1;
+            if (row > 0)
+                neighbours[count++] = curr - columns;
+            if (column > 0)
+                neighbours[count++] = curr - 1;
+            for (int i = 0; i < count; i++) {
+                int neighbour = neighbours[i];
+                if ((walls[neighbour >>> 6] & (1L << neighbour)) != 0 || neighbour == parent[curr])
+                    continue;
+                if (depth[neighbour] >= 0)
+                    return false; // reached twice, so there are two paths to it
+                depth[neighbour] = depth[curr] + 1;
+                parent[neighbour] = curr;
+                // jump twice as far as the parent does when the parent's jumps are evenly spaced, else jump to it
+                int parentJump = jump[curr];
+                boolean even = depth[curr] - depth[parentJump] == depth[parentJump] - depth[jump[parentJump]];
+                jump[neighbour] = even ? jump[parentJump] : curr;
+                queue.offer(neighbour);
+            }
+        }
+        return true;
+    }
+
+    private int lowestCommonAncestor(int u, int v) {
+        if (depth[u] < depth[v]) {
+            int swap = u;
+            u = v;
+            v = swap;
+        }
+        while (depth[u] > depth[v])
+            u = depth[jump[u]] >= depth[v] ? jump[u] : parent[u];
+        // cells of the same depth have jumps of the same depth, so both sides climb together
+        while (u != v) {
+            if (jump[u] != jump[v]) {
+                u = jump[u];
+                v = jump[v];
+            } else {
+                u = parent[u];
+                v = parent[v];
+            }
+        }
+        return u;
+    }
+
+    // replaces each turn of the path (two straight moves around a corner) by one diagonal move, left to right
+    private int[] cutCorners(int[] treePath) {
+        int[] path = new int[treePath.length];
+        int length = 0;
+        int i = 0;
+        path[length++] = treePath[0];
+        while (i < treePath.length - 1) {
+            if (i + 2 < treePath.length && isDiagonal(treePath[i], treePath[i + 2]))
+                i += 2;
+            else
+                i++;
+            path[length++] = treePath[i];
+        }
+        return Arrays.copyOf(path, length);
+    }
+
+    private boolean isDiagonal(int from, int to) {
+        return from / columns != to / columns && from % columns != to % columns;
+    }
+
+    // the cell id of a position in the root's tree, or -1
+    private int cell(Position position) {
+        int row = position.getRowIndex();
+        int column = position.getColumnIndex();
+        if (row < 0 || row >= rows || column < 0 || column >= columns)
+            return -1;
+        int cell = row * columns + column;
+        return depth[cell] < 0 ? -1 : cell;
+    }
+}
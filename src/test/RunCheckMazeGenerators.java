@@ -0,0 +1,128 @@
+package test;
+
+import IO.MyCompressorOutputStream;
+import IO.MyDecompressorInputStream;
+import algorithms.mazeGenerators.*;
+import algorithms.search.TreePathOracle;
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * Checks the generators and the maze byte layouts:
+ * every perfect maze generator carves a tree that reaches every open cell from the start (on odd sides),
+ * Eller's streamed maze is the same bytes as the maze it generates,
+ * and a maze comes back exactly from the compressor in both the v1 and the v2 layout.
+ */
+public class RunCheckMazeGenerators {
+    private static boolean allPassed = true;
+
+    public static void main(String[] args) throws IOException {
+        checkPerfect("MyMazeGenerator", new MyMazeGenerator().generate(101, 151, 5));
+        checkPerfect("KruskalMazeGenerator", new KruskalMazeGenerator().generate(151, 101, 5));
+        checkPerfect("ParallelMazeGenerator", new ParallelMazeGenerator().generate(701, 521, 5));
+        checkPerfect("EllerMazeGenerator", new EllerMazeGenerator().generate(121, 99, 5));
+
+        checkEllerStream(1, 1, 3);
+        checkEllerStream(2, 2, 3);
+        checkEllerStream(64, 64, 3);
+        checkEllerStream(99, 130, 3);
+        checkEllerStream(300, 1001, 3);
+
+        checkVersion1RoundTrip(new MyMazeGenerator().generate(1000, 1000, 9));
+        checkVersion1RoundTrip(new EllerMazeGenerator().generate(37, 53, 9));
+        checkVersion2RoundTrip(new MyMazeGenerator().generate(1000, 1000, 9));
+        checkVersion2RoundTrip(new KruskalMazeGenerator().generate(70000, 3, 9));
+
+        checkCorruptHeaderRejected("negative rows", 4, -5);
+        checkCorruptHeaderRejected("zero columns", 8, 0);
+        checkCorruptHeaderRejected("huge columns", 8, Integer.MAX_VALUE);
+        checkCorruptHeaderRejected("more rows than cells sent", 4, 70001);
+
+        System.out.println(String.format("All checks passed: %s", allPassed));
+        if (!allPassed)
+            System.exit(1);
+    }
+
+    // A perfect maze has exactly one path between two open cells: the oracle is only built for a tree,
+    // and every open cell must be in the start's tree. Only mazes with odd sides are perfect, an even side
+    // ends in a row or column of random cells that can close loops
+    private static void checkPerfect(String generatorName, Maze maze) {
+        TreePathOracle oracle = TreePathOracle.forMaze(maze);
+        boolean perfect = oracle != null;
+        for (int row = 0; perfect && row < maze.getRows(); row++) {
+            for (int column = 0; perfect && column < maze.getColumns(); column++) {
+                if (maze.getCell(row, column) == 0)
+                    perfect = oracle.treeDistance(maze.getStartPosition(), new Position(row, column)) >= 0;
+            }
+        }
+        check(String.format("%s %sx%s maze is perfect", generatorName, maze.getRows(), maze.getColumns()), perfect);
+    }
+
+    private static void checkEllerStream(int rows, int columns, long seed) throws IOException {
+        EllerMazeGenerator generator = new EllerMazeGenerator();
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        generator.writeTo(rows, columns, seed, streamed);
+        ByteArrayOutputStream generated = new ByteArrayOutputStream();
+        generator.generate(rows, columns, seed).writeTo(generated);
+        check(String.format("Eller %sx%s streamed maze equals generated maze", rows, columns),
+                Arrays.equals(streamed.toByteArray(), generated.toByteArray()));
+    }
+
+    private static void checkVersion1RoundTrip(Maze maze) throws IOException {
+        byte[] mazeBytes = maze.toByteArray();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        OutputStream out = new MyCompressorOutputStream(compressed);
+        out.write(mazeBytes);
+        out.flush();
+        out.close();
+        InputStream in = new MyDecompressorInputStream(new ByteArrayInputStream(compressed.toByteArray()));
+        byte[] loadedBytes = new byte[mazeBytes.length];
+        in.read(loadedBytes);
+        in.close();
+        check(String.format("v1 %sx%s maze round trip", maze.getRows(), maze.getColumns()), Arrays.equals(mazeBytes, loadedBytes));
+    }
+
+    private static void checkVersion2RoundTrip(Maze maze) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        OutputStream out = new MyCompressorOutputStream(compressed);
+        maze.writeTo(out);
+        out.flush();
+        out.close();
+        InputStream in = new MyDecompressorInputStream(new ByteArrayInputStream(compressed.toByteArray()));
+        Maze loadedMaze = Maze.readFrom(in);
+        in.close();
+        boolean equal = loadedMaze.getRows() == maze.getRows() && loadedMaze.getColumns() == maze.getColumns()
+                && loadedMaze.getStartPosition().toString().equals(maze.getStartPosition().toString())
+                && loadedMaze.getGoalPosition().toString().equals(maze.getGoalPosition().toString())
+                && Arrays.equals(loadedMaze.toWordArray(), maze.toWordArray());
+        check(String.format("v2 %sx%s maze round trip", maze.getRows(), maze.getColumns()), equal);
+    }
+
+    // A v2 maze with one header int replaced must be refused with IllegalArgumentException, from an array
+    // and from a stream, before anything as large as the header claims is allocated
+    private static void checkCorruptHeaderRejected(String name, int offset, int value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new KruskalMazeGenerator().generate(70000, 3, 9).writeTo(out);
+        byte[] mazeBytes = out.toByteArray();
+        for (int i = 0; i < 4; i++)
+            mazeBytes[offset + i] = (byte) (value >>> (24 - 8 * i));
+        boolean arrayRejected = false;
+        try {
+            new Maze(mazeBytes);
+        } catch (IllegalArgumentException e) {
+            arrayRejected = true;
+        }
+        boolean streamRejected = false;
+        try {
+            Maze.readFrom(new ByteArrayInputStream(mazeBytes));
+        } catch (IllegalArgumentException | EOFException e) {
+            streamRejected = true; // a stream can only tell it was cut short once it ends
+        }
+        check(String.format("v2 maze with %s rejected", name), arrayRejected && streamRejected);
+    }
+
+    private static void check(String name, boolean passed) {
+        allPassed &= passed;
+        System.out.println(String.format("%s: %s", name, passed ? "ok" : "FAILED"));
+    }
+}
@@ -0,0 +1,232 @@
+package test;
+
+import algorithms.mazeGenerators.*;
+import algorithms.search.*;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Solves the same mazes with every solver and checks that the ones that should agree do:
+ * the searches on the primitive engine answer like their searches on states,
+ * the breadth first searches find paths with the same number of states,
+ * and the cheapest path solvers, alone or raced, the junction reduction and the tree oracle find paths with the same cost.
+ * The incremental planner keeps agreeing as the player walks its path.
+ * Hierarchical path finding only has to find a path whenever there is one, at no less than the cheapest cost.
+ * Besides a few large mazes it runs many small random ones, with the start moved anywhere and walled in on a fifth.
+ */
+public class RunCompareSolvers {
+    private static boolean allAgree = true;
+    private static boolean quiet; // only mismatches are printed
+
+    public static void main(String[] args) {
+        compareSolvers("MyMazeGenerator", new MyMazeGenerator().generate(41, 41, 3));
+        compareSolvers("MyMazeGenerator", new MyMazeGenerator().generate(300, 301, 7));
+        compareSolvers("KruskalMazeGenerator", new KruskalMazeGenerator().generate(251, 251, 11));
+        compareSolvers("ParallelMazeGenerator", new ParallelMazeGenerator().generate(601, 601, 13));
+        compareSolvers("EllerMazeGenerator", new EllerMazeGenerator().generate(201, 401, 17));
+        compareSolvers("EmptyMazeGenerator", new EmptyMazeGenerator().generate(60, 60));
+        compareSolvers("Walled start", withStart(new MyMazeGenerator().generate(20, 136, 21), 7, 40, true));
+        for (long seed = 1; seed <= 3; seed++)
+            compareOnRandomMazes(seed, 300);
+        System.out.println(String.format("All solvers agree: %s", allAgree));
+        if (!allAgree)
+            System.exit(1);
+    }
+
+    private static void compareSolvers(String generatorName, Maze maze) {
+        SearchableMaze searchableMaze = new SearchableMaze(maze);
+        if (!quiet)
+            System.out.println(String.format("%s %sx%s maze:", generatorName, maze.getRows(), maze.getColumns()));
+
+        // The breadth first searches count moves, so their paths have the same number of states
+        int bfsLength = solve(searchableMaze, new BreadthFirstSearch()).getPathLength();
+        check("Bidirectional Breadth First Search length", bfsLength, solve(searchableMaze, new BidirectionalBreadthFirstSearch()).getPathLength());
+        check("Parallel Breadth First Search length", bfsLength, solve(searchableMaze, new ParallelBreadthFirstSearch()).getPathLength());
+        check("Bitboard Breadth First Search length", bfsLength, solve(searchableMaze, new BitboardBreadthFirstSearch()).getPathLength());
+
+        // The engine behind Breadth First, Depth First and Best First Search answers like their searches on states,
+        // which the same maze behind another ISearchable still gets. Depth First Search only has to find a path when
+        // there is one
+        ISearchable genericMaze = new GenericSearchable(searchableMaze);
+        check("Generic Breadth First Search length", bfsLength, solve(genericMaze, new BreadthFirstSearch()).getPathLength());
+        check("Generic Best First Search cost", lastCost(solve(searchableMaze, new BestFirstSearch())), lastCost(solve(genericMaze, new BestFirstSearch())));
+        checkPath("Depth First Search path", maze, solve(searchableMaze, new DepthFirstSearch()), bfsLength == 0 ? -1 : 0);
+        checkPath("Generic Depth First Search path", maze, solve(genericMaze, new DepthFirstSearch()), bfsLength == 0 ? -1 : 0);
+
+        // The cheapest path solvers carry the cost from the start in every state, so their last states cost the same
+        int aStarCost = lastCost(solve(searchableMaze, new AStarSearch()));
+        check("Dial Search cost", aStarCost, lastCost(solve(searchableMaze, new DialSearch())));
+        check("Jump Point Search cost", aStarCost, lastCost(solve(searchableMaze, new JumpPointSearch())));
+        // Whichever cheapest path solver wins the race, its path costs the same, and any path of the default race
+        // is a path from the start to the goal
+        check("Cheapest portfolio cost", aStarCost, lastCost(solve(searchableMaze, new PortfolioSearch(true))));
+        checkPath("Portfolio path", maze, solve(searchableMaze, new PortfolioSearch()), aStarCost);
+        // The reduced maze is searched junction to junction, its expanded path carries the cost of every move
+        check("Reduced maze A* cost", aStarCost, moveCost(new ReducedSearchableMaze(maze).solve(new AStarSearch())));
+
+        // The distance field counts moves from every cell, the start's path on it is as short as the breadth first ones
+        GoalDistanceField distanceField = new GoalDistanceField(maze);
+        Position start = maze.getStartPosition();
+        check("Distance field moves", bfsLength - 1, distanceField.getDistance(start.getRowIndex(), start.getColumnIndex()));
+        check("Distance field path length", bfsLength, distanceField.pathToGoal(start.getRowIndex(), start.getColumnIndex()).getPathLength());
+
+        // A batch solves every route on its own engine, all copies of the start to goal route cost the same
+        checkBatch(maze, aStarCost);
+
+        // The hierarchical graph is built on small clusters so that even small mazes have several
+        Solution hierarchical = new HierarchicalPathFinder(maze, 8).solve(maze.getStartPosition(), maze.getGoalPosition());
+        checkPath("Hierarchical path", maze, hierarchical, aStarCost);
+
+        // The planner's path costs the same from the start, and again after every few moves along it
+        checkPlanner(maze, aStarCost);
+
+        // A perfect maze (odd sides) is also answered by the tree oracle, with the same length and cost
+        TreePathOracle oracle = TreePathOracle.forMaze(maze);
+        if (oracle != null) {
+            check("Tree oracle length", bfsLength, oracle.solve(maze.getStartPosition(), maze.getGoalPosition()).getPathLength());
+            check("Tree oracle cost", aStarCost, lastCost(oracle.solve(maze.getStartPosition(), maze.getGoalPosition(), true)));
+        }
+    }
+
+    // Small mazes of random sizes and generators, each with its start moved to a random cell that is walled in one
+    // time out of five and opened otherwise
+    private static void compareOnRandomMazes(long seed, int count) {
+        Random random = new Random(seed);
+        IMazeGenerator[] generators = {new MyMazeGenerator(), new KruskalMazeGenerator(), new EllerMazeGenerator(), new SimpleMazeGenerator()};
+        boolean agreedBefore = allAgree;
+        allAgree = true;
+        quiet = true;
+        for (int i = 0; i < count; i++) {
+            int rows = 2 + random.nextInt(60);
+            int columns = 2 + random.nextInt(140);
+            Maze maze = generators[random.nextInt(generators.length)].generate(rows, columns, random.nextLong());
+            maze = withStart(maze, random.nextInt(rows), random.nextInt(columns), random.nextInt(5) == 0);
+            try {
+                compareSolvers("Random", maze);
+            } catch (RuntimeException e) {
+                allAgree = false;
+                System.out.println(String.format("  Random %sx%s maze failed: %s", rows, columns, e));
+            }
+        }
+        quiet = false;
+        System.out.println(String.format("%s random mazes of seed %s agree: %s", count, seed, allAgree));
+        allAgree &= agreedBefore;
+    }
+
+    // The same maze with its start moved to a cell, which is walled or opened
+    private static Maze withStart(Maze maze, int row, int column, boolean walled) {
+        maze.setCell(row, column, walled ? 1 : 0);
+        byte[] mazeBytes = maze.toByteArray(); // the v1 layout, these mazes are small
+        mazeBytes[4] = (byte) (row / 256);
+        mazeBytes[5] = (byte) (row % 256);
+        mazeBytes[6] = (byte) (column / 256);
+        mazeBytes[7] = (byte) (column % 256);
+        return new Maze(mazeBytes);
+    }
+
+    // A maze the searches don't recognise as one, so they fall back to searching its states
+    private static class GenericSearchable implements ISearchable {
+        private final ISearchable maze;
+
+        GenericSearchable(ISearchable maze) {
+            this.maze = maze;
+        }
+
+        public AState getStartState() {
+            return maze.getStartState();
+        }
+
+        public AState getGoalState() {
+            return maze.getGoalState();
+        }
+
+        public ArrayList<AState> getAllPossibleStates(AState state) {
+            return maze.getAllPossibleStates(state);
+        }
+    }
+
+    private static Solution solve(ISearchable domain, ISearchingAlgorithm searcher) {
+        return searcher.solve(domain);
+    }
+
+    private static int lastCost(Solution solution) {
+        ArrayList<AState> solutionPath = solution.getSolutionPath();
+        return solutionPath.isEmpty() ? -1 : solutionPath.get(solutionPath.size() - 1).getCost();
+    }
+
+    // The cost of every move of a path, whichever cost its states carry, -1 for an empty path
+    private static int moveCost(Solution solution) {
+        ArrayList<AState> solutionPath = solution.getSolutionPath();
+        if (solutionPath.isEmpty())
+            return -1;
+        int cost = 0;
+        for (int i = 1; i < solutionPath.size(); i++) {
+            MazeState from = (MazeState) solutionPath.get(i - 1);
+            MazeState to = (MazeState) solutionPath.get(i);
+            boolean straight = from.getStateRow() == to.getStateRow() || from.getStateColumn() == to.getStateColumn();
+            cost += straight ? 10 : 15;
+        }
+        return cost;
+    }
+
+    private static void checkBatch(Maze maze, int cheapestCost) {
+        ArrayList<Position> starts = new ArrayList<>();
+        ArrayList<Position> goals = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            starts.add(maze.getStartPosition());
+            goals.add(maze.getGoalPosition());
+        }
+        boolean agree = true;
+        for (Solution solution : new BatchSolver(maze).solveAll(starts, goals))
+            agree &= moveCost(solution) == cheapestCost;
+        boolean mismatchRejected = false;
+        try {
+            new BatchSolver(maze).solveAll(starts, goals.subList(1, goals.size()));
+        } catch (IllegalArgumentException e) {
+            mismatchRejected = true;
+        }
+        allAgree &= agree && mismatchRejected;
+        if (!quiet || !agree || !mismatchRejected)
+            System.out.println(String.format("  Batch of %s routes cost: %s, unpaired routes rejected: %s %s",
+                    starts.size(), agree ? "same" : "different", mismatchRejected, agree && mismatchRejected ? "ok" : "MISMATCH"));
+    }
+
+    // The planner repairs its search as the player walks its path, every answer costs as much as A* from there.
+    // It doesn't plan from a wall, unlike the other solvers
+    private static void checkPlanner(Maze maze, int cheapestCost) {
+        Position start = maze.getStartPosition();
+        if (maze.getCell(start.getRowIndex(), start.getColumnIndex()) != 0)
+            return;
+        DStarLitePlanner planner = new DStarLitePlanner(maze);
+        Solution planned = planner.solve(start);
+        boolean agree = moveCost(planned) == cheapestCost;
+        for (int step = 0; agree && planned.getPathLength() > 4; step++) {
+            MazeState next = (MazeState) planned.getSolutionPath().get(planned.getPathLength() / 3);
+            Maze moved = withStart(maze, next.getStateRow(), next.getStateColumn(), false);
+            planned = planner.solve(moved.getStartPosition());
+            agree = moveCost(planned) == lastCost(solve(new SearchableMaze(moved), new AStarSearch()));
+        }
+        allAgree &= agree;
+        if (!quiet || !agree)
+            System.out.println(String.format("  D* Lite costs along its path: %s %s", agree ? "same" : "different", agree ? "ok" : "MISMATCH"));
+    }
+
+    // A path from the start to the goal of the maze, costing no less than the cheapest one, empty only when that is
+    private static void checkPath(String name, Maze maze, Solution solution, int cheapestCost) {
+        ArrayList<AState> solutionPath = solution.getSolutionPath();
+        boolean valid = solutionPath.isEmpty() ? cheapestCost < 0
+                : solutionPath.get(0).toString().equals(maze.getStartPosition().toString())
+                && solutionPath.get(solutionPath.size() - 1).toString().equals(maze.getGoalPosition().toString())
+                && moveCost(solution) >= cheapestCost && cheapestCost >= 0;
+        allAgree &= valid;
+        if (!quiet || !valid)
+            System.out.println(String.format("  %s cost: %s (cheapest %s) %s", name, moveCost(solution), cheapestCost, valid ? "ok" : "MISMATCH"));
+    }
+
+    private static void check(String name, int expected, int actual) {
+        boolean equal = expected == actual;
+        allAgree &= equal;
+        if (!quiet || !equal)
+            System.out.println(String.format("  %s: %s (expected %s) %s", name, actual, expected, equal ? "ok" : "MISMATCH"));
+    }
+}